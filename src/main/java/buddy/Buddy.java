@@ -1,8 +1,9 @@
 package buddy;
 
-import java.util.ArrayList;
+import java.util.function.Consumer;
 
 import buddy.command.Command;
+import buddy.task.ParallelTaskLoader;
 import buddy.task.Task;
 import buddy.task.TaskList;
 import buddy.task.TaskParser;
@@ -14,6 +15,12 @@ import buddy.task.TaskParser;
 public class Buddy {
 
     private static final String DATA_FILE = "./data/buddy.txt";
+    private static final String STORAGE_MODE_PROPERTY = "buddy.storage";
+    private static final String STORAGE_FORMAT_PROPERTY = "buddy.format";
+    private static final String LOAD_MODE_PROPERTY = "buddy.load";
+    private static final String PARALLEL_LOAD_MODE = "parallel";
+    private static final String HISTORY_DEPTH_PROPERTY = "buddy.history";
+    private static final int DEFAULT_HISTORY_DEPTH = 100;
 
     private final Ui ui;
     private final Storage storage;
@@ -25,7 +32,8 @@ public class Buddy {
      */
     public Buddy() {
         this.ui = new Ui();
-        this.storage = new Storage(DATA_FILE);
+        this.storage = new Storage(DATA_FILE, StorageMode.fromName(System.getProperty(STORAGE_MODE_PROPERTY)),
+                StorageFormat.fromName(System.getProperty(STORAGE_FORMAT_PROPERTY)));
         this.taskList = loadTasks();
     }
 
@@ -48,30 +56,72 @@ public class Buddy {
     }
 
     private TaskList loadTasks() {
-        ArrayList<String> lines = loadLines();
-        return parseTasks(lines);
+        TaskList taskList = new TaskList();
+        if (hasBinaryFile()) {
+            loadBinary(taskList);
+        } else if (PARALLEL_LOAD_MODE.equalsIgnoreCase(System.getProperty(LOAD_MODE_PROPERTY))) {
+            ParallelTaskLoader loader = new ParallelTaskLoader();
+            loadLines(loader);
+            loader.finish(taskList, this::warnCorruptedLine);
+        } else {
+            int[] lineNumber = {0};
+            loadLines(line -> parseTask(taskList, line, ++lineNumber[0]));
+        }
+        if (storage.isJournaled()) {
+            replayJournal(taskList);
+        }
+        // Turn history on only now, so the loaded tasks are not changes that can be undone
+        taskList.setHistoryDepth(Math.max(0, Integer.getInteger(HISTORY_DEPTH_PROPERTY, DEFAULT_HISTORY_DEPTH)));
+        return taskList;
     }
 
-    private ArrayList<String> loadLines() {
+    private void loadLines(Consumer<String> lineConsumer) {
         try {
-            return new ArrayList<>(storage.load());
+            storage.forEachLine(lineConsumer);
         } catch (BuddyException e) {
             ui.showError("Error loading tasks: " + e.getMessage());
-            return new ArrayList<>();
         }
     }
 
-    private TaskList parseTasks(ArrayList<String> lines) {
-        TaskList taskList = new TaskList();
-        for (String line : lines) {
-            try {
-                Task task = TaskParser.parseFromFile(line);
-                taskList.addTask(task);
-            } catch (BuddyException e) {
-                System.out.println("Warning: Skipping corrupted line: " + line);
-            }
+    private boolean hasBinaryFile() {
+        try {
+            return storage.hasBinaryFile();
+        } catch (BuddyException e) {
+            ui.showError("Error loading tasks: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void loadBinary(TaskList taskList) {
+        try {
+            storage.forEachTask(taskList::addTask);
+        } catch (BuddyException e) {
+            ui.showError("Error loading tasks: " + e.getMessage());
+        }
+    }
+
+    private void parseTask(TaskList taskList, String line, int lineNumber) {
+        try {
+            Task task = TaskParser.parseFromFile(line);
+            taskList.addTask(task);
+        } catch (BuddyException e) {
+            warnCorruptedLine(line, lineNumber);
+        }
+    }
+
+    private void warnCorruptedLine(String line, int lineNumber) {
+        System.out.println("Warning: Skipping corrupted line " + lineNumber + ": " + line);
+    }
+
+    /**
+     * Folds the changes recorded in the journal into the task list, then compacts them into the task file.
+     */
+    private void replayJournal(TaskList taskList) {
+        try {
+            storage.replayJournal(taskList);
+        } catch (BuddyException e) {
+            ui.showError("Error replaying journal: " + e.getMessage());
         }
-        return taskList;
     }
 
     /**
@@ -12,6 +12,11 @@ public enum CommandKeyword {
     DEADLINE("deadline"),
     EVENT("event"),
     FIND("find"),
+    EXPLAIN("explain"),
+    UPCOMING("upcoming"),
+    STATS("stats"),
+    UNDO("undo"),
+    REDO("redo"),
     BYE("bye");
 
     private final String keyword;
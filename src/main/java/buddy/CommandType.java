@@ -5,11 +5,16 @@ import buddy.command.Command;
 import buddy.command.DeadlineCommand;
 import buddy.command.DeleteCommand;
 import buddy.command.EventCommand;
+import buddy.command.ExplainCommand;
 import buddy.command.FindCommand;
 import buddy.command.ListCommand;
 import buddy.command.MarkCommand;
+import buddy.command.RedoCommand;
+import buddy.command.StatsCommand;
 import buddy.command.TodoCommand;
+import buddy.command.UndoCommand;
 import buddy.command.UnmarkCommand;
+import buddy.command.UpcomingCommand;
 
 /**
  * Enum representing different command types.
@@ -23,6 +28,11 @@ public enum CommandType {
     DEADLINE,
     EVENT,
     FIND,
+    EXPLAIN,
+    UPCOMING,
+    STATS,
+    UNDO,
+    REDO,
     BYE,
     ERROR,
     UNKNOWN;
@@ -58,6 +68,21 @@ public enum CommandType {
         if (command instanceof FindCommand) {
             return FIND;
         }
+        if (command instanceof ExplainCommand) {
+            return EXPLAIN;
+        }
+        if (command instanceof UpcomingCommand) {
+            return UPCOMING;
+        }
+        if (command instanceof StatsCommand) {
+            return STATS;
+        }
+        if (command instanceof UndoCommand) {
+            return UNDO;
+        }
+        if (command instanceof RedoCommand) {
+            return REDO;
+        }
         if (command instanceof ByeCommand) {
             return BYE;
         }
@@ -13,4 +13,6 @@ public class Constants {
     public static final String EVENT_FROM_DELIMITER = " /from ";
     public static final String EVENT_TO_DELIMITER = " /to ";
     public static final String TAG_DELIMITER = " /tag ";
+    public static final String TASK_ID_PREFIX = "@";
+    public static final int LIST_PAGE_SIZE = 100;
 }
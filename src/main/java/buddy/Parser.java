@@ -1,20 +1,51 @@
 package buddy;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
 import buddy.command.ByeCommand;
 import buddy.command.Command;
 import buddy.command.DeadlineCommand;
 import buddy.command.DeleteCommand;
 import buddy.command.EventCommand;
+import buddy.command.ExplainCommand;
 import buddy.command.FindCommand;
 import buddy.command.ListCommand;
 import buddy.command.MarkCommand;
+import buddy.command.RedoCommand;
+import buddy.command.StatsCommand;
 import buddy.command.TodoCommand;
+import buddy.command.UndoCommand;
 import buddy.command.UnmarkCommand;
+import buddy.command.UpcomingCommand;
+import buddy.task.DateTimeUtil;
+import buddy.task.Task;
+import buddy.task.TaskFilter;
+import buddy.task.TaskQuery;
 
 /**
  * Parser handles parsing and interpreting user commands.
  */
 public class Parser {
+    private static final String FIND_FORMAT_MESSAGE = "Find format: find <keyword|date|date..date|#tag>, "
+            + "optionally combined with filters such as is:undone, due:today and due<date>";
+    private static final String FILTER_PREFIX = "is:";
+    private static final String DUE_PREFIX = "due";
+    private static final String RELATIVE_DUE_PREFIX = "due:";
+    private static final String FUZZY_PREFIX = "~";
+    private static final String DATE_RANGE_DELIMITER = "..";
+    private static final String TODAY_KEYWORD = "today";
+    private static final String THIS_WEEK_KEYWORD = "this-week";
+    private static final String OVERDUE_KEYWORD = "overdue";
 
     /**
      * Parses user input to determine the command type.
@@ -29,7 +60,7 @@ public class Parser {
         int space = trimmed.indexOf(' ');
         String keyword = (space == -1) ? trimmed : trimmed.substring(0, space);
         return switch (keyword.toLowerCase()) {
-        case "list" -> new ListCommand();
+        case "list" -> new ListCommand(input);
         case "mark" -> new MarkCommand(input);
         case "unmark" -> new UnmarkCommand(input);
         case "delete" -> new DeleteCommand(input);
@@ -37,6 +68,11 @@ public class Parser {
         case "deadline" -> new DeadlineCommand(input);
         case "event" -> new EventCommand(input);
         case "find" -> new FindCommand(input);
+        case "upcoming" -> new UpcomingCommand(input);
+        case "explain" -> new ExplainCommand(input);
+        case "stats" -> new StatsCommand();
+        case "undo" -> new UndoCommand();
+        case "redo" -> new RedoCommand();
         case "bye" -> new ByeCommand();
         default -> throw new BuddyException("I don't recognise that command.");
         };
@@ -60,6 +96,56 @@ public class Parser {
             throw new BuddyException("Please provide a valid task number.");
         }
     }
+    /**
+     * Parses a list number or a range of list numbers such as "1-500" from a mark/unmark/delete command.
+     *
+     * @param text the list number or range
+     * @return the first and last 0-based indexes of the range, which are equal for a single number
+     * @throws BuddyException if the number or range is invalid
+     */
+    public static int[] parseTaskRange(String text) throws BuddyException {
+        assert text != null : "Text should not be null";
+        int delimiterIndex = text.indexOf('-', 1);
+        if (delimiterIndex == -1) {
+            int taskIndex = parseTaskNumber(text, 0);
+            return new int[]{taskIndex, taskIndex};
+        }
+        int first = parseTaskNumber(text.substring(0, delimiterIndex), 0);
+        int last = parseTaskNumber(text.substring(delimiterIndex + 1), 0);
+        if (last < first) {
+            throw new BuddyException("Please provide a valid range of task numbers, e.g. 1-5.");
+        }
+        return new int[]{first, last};
+    }
+    /**
+     * Checks whether a mark/unmark/delete command refers to its task by ID, as in "mark @12".
+     *
+     * @param input the user input string
+     * @param commandLength the length of the command keyword
+     * @return true if the argument starts with the task ID prefix
+     */
+    public static boolean isTaskIdReference(String input, int commandLength) {
+        assert input != null : "Input should not be null";
+        return input.length() > commandLength
+                && input.substring(commandLength).trim().startsWith(Constants.TASK_ID_PREFIX);
+    }
+    /**
+     * Extracts the task ID from mark/unmark/delete commands that refer to a task by ID.
+     *
+     * @param input the user input string
+     * @param commandLength the length of the command keyword
+     * @return the task ID
+     * @throws BuddyException if the task ID is invalid
+     */
+    public static int parseTaskId(String input, int commandLength) throws BuddyException {
+        assert isTaskIdReference(input, commandLength) : "Input should refer to a task ID";
+        try {
+            String idStr = input.substring(commandLength).trim().substring(Constants.TASK_ID_PREFIX.length());
+            return Integer.parseInt(idStr.trim());
+        } catch (NumberFormatException e) {
+            throw new BuddyException("Please provide a valid task ID.");
+        }
+    }
     /**
      * Parses a todo command into description and optional tag.
      *
@@ -140,22 +226,223 @@ public class Parser {
         return new String[]{description, from, to, tag};
     }
     /**
-     * Parses the date from a find command.
+     * Parses the criteria of a find command into a query, as in "find #work due<2026-03-01 is:undone \"report\"".
+     * A criterion is a #tag, a status or type filter such as is:undone or is:deadlines, a yyyy-MM-dd date,
+     * a date range such as 2026-02-01..2026-02-28, due:today, due:this-week (Monday to Sunday), due:overdue,
+     * a due date comparison such as due<2026-03-01 or due>=2026-03-01, or text to search for.
+     * Filters and relative dates need their prefix, so plain words such as done or today are searched for as text.
+     * Consecutive words of text form one phrase, and quoted text is searched for even if it looks like a criterion.
+     * Every word is classified by its shape, so no input is tried and rejected by a parser.
+     *
+     * @param input the user input string
+     * @param commandLength the length of the command keyword before the criteria
+     * @param now the time that today, this-week and overdue are relative to
+     * @return the query
+     * @throws BuddyException if there are no criteria or one is invalid
+     */
+    public static TaskQuery parseFindQuery(String input, int commandLength, LocalDateTime now)
+            throws BuddyException {
+        assert input != null : "Input should not be null";
+        String criteria = input.length() <= commandLength ? "" : input.substring(commandLength).trim();
+        String tag = null;
+        Set<TaskFilter> filters = EnumSet.noneOf(TaskFilter.class);
+        List<String> keywords = new ArrayList<>();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        StringJoiner phrase = new StringJoiner(" ");
+        int position = 0;
+        while (position < criteria.length()) {
+            char c = criteria.charAt(position);
+            if (Character.isWhitespace(c)) {
+                position++;
+                continue;
+            }
+            if (c == '"') {
+                int close = criteria.indexOf('"', position + 1);
+                if (close == -1) {
+                    throw new BuddyException("Please close the quoted text in your search.");
+                }
+                addKeyword(keywords, phrase.toString());
+                phrase = new StringJoiner(" ");
+                addKeyword(keywords, criteria.substring(position + 1, close));
+                position = close + 1;
+                continue;
+            }
+            int end = position;
+            while (end < criteria.length() && !Character.isWhitespace(criteria.charAt(end))
+                    && criteria.charAt(end) != '"') {
+                end++;
+            }
+            String word = criteria.substring(position, end);
+            position = end;
+
+            TaskFilter filter = parseFilter(word);
+            LocalDateTime[] range = filter == null ? parseTimeRange(word, now) : null;
+            if (filter == null && range == null && !word.startsWith("#")) {
+                phrase.add(word);
+                continue;
+            }
+            addKeyword(keywords, phrase.toString());
+            phrase = new StringJoiner(" ");
+            if (filter != null) {
+                filters.add(filter);
+            } else if (word.startsWith("#")) {
+                String wordTag = Task.normaliseTag(word);
+                if (wordTag == null) {
+                    throw new BuddyException("Find format: find #<tag>");
+                }
+                if (tag != null && !tag.equals(wordTag)) {
+                    throw new BuddyException("Please provide only one tag.");
+                }
+                tag = wordTag;
+            } else {
+                if (word.equalsIgnoreCase(RELATIVE_DUE_PREFIX + OVERDUE_KEYWORD)) {
+                    filters.add(TaskFilter.UNDONE);
+                    filters.add(TaskFilter.DEADLINES);
+                }
+                // Every time criterion narrows the same range, so the latest start and earliest end win
+                if (range[0] != null && (from == null || range[0].isAfter(from))) {
+                    from = range[0];
+                }
+                if (range[1] != null && (to == null || range[1].isBefore(to))) {
+                    to = range[1];
+                }
+            }
+        }
+        addKeyword(keywords, phrase.toString());
+        if (tag == null && filters.isEmpty() && keywords.isEmpty() && from == null && to == null) {
+            throw new BuddyException(FIND_FORMAT_MESSAGE);
+        }
+        return new TaskQuery(tag, Collections.unmodifiableSet(filters), List.copyOf(keywords), from, to);
+    }
+
+    /**
+     * Extracts the text of a fuzzy find command such as "find ~assigment".
      *
      * @param input the user input string
-     * @return the date string
-     * @throws BuddyException if the date is missing
+     * @param commandLength the length of the command keyword before the criteria
+     * @return the text to look for, or null if the command is not a fuzzy find
+     * @throws BuddyException if the text is missing
      */
-    public static String parseFindDate(String input) throws BuddyException {
+    public static String parseFuzzyTerm(String input, int commandLength) throws BuddyException {
         assert input != null : "Input should not be null";
-        if (input.length() <= CommandKeyword.FIND.length()) {
-            throw new BuddyException("Find format: find <keyword|date|#tag>");
+        String criteria = input.length() <= commandLength ? "" : input.substring(commandLength).trim();
+        if (!criteria.startsWith(FUZZY_PREFIX)) {
+            return null;
         }
-        String dateString = input.substring(CommandKeyword.FIND.length()).trim();
-        if (dateString.isEmpty()) {
-            throw new BuddyException("Find format: find <keyword|date|#tag>");
+        String term = criteria.substring(FUZZY_PREFIX.length()).trim();
+        if (term.isEmpty()) {
+            throw new BuddyException("Fuzzy find format: find ~<keyword>");
         }
-        return dateString;
+        return term;
+    }
+
+    private static void addKeyword(List<String> keywords, String text) {
+        String keyword = text.trim().toLowerCase();
+        if (!keyword.isEmpty()) {
+            keywords.add(keyword);
+        }
+    }
+
+    /**
+     * Returns the filter an is: word names, as in "is:undone", or null if the word has no is: prefix.
+     */
+    private static TaskFilter parseFilter(String word) throws BuddyException {
+        if (!word.regionMatches(true, 0, FILTER_PREFIX, 0, FILTER_PREFIX.length())) {
+            return null;
+        }
+        TaskFilter filter = TaskFilter.fromWord(word.substring(FILTER_PREFIX.length()));
+        if (filter == null) {
+            throw new BuddyException("Please filter with is:done, is:undone, is:todos, is:deadlines or is:events.");
+        }
+        return filter;
+    }
+
+    /**
+     * Returns the start and end of the time range a word asks for, either of which is null if the range is open
+     * at that end, or null if the word is not a time criterion. Dates cover whole days.
+     */
+    private static LocalDateTime[] parseTimeRange(String word, LocalDateTime now) throws BuddyException {
+        if (word.regionMatches(true, 0, RELATIVE_DUE_PREFIX, 0, RELATIVE_DUE_PREFIX.length())) {
+            return parseRelativeDue(word.substring(RELATIVE_DUE_PREFIX.length()), now);
+        } else if (isDueComparison(word)) {
+            LocalDate[] days = parseDueComparison(word);
+            return wholeDays(days[0], days[1]);
+        }
+        int delimiterIndex = word.indexOf(DATE_RANGE_DELIMITER);
+        if (delimiterIndex == -1) {
+            LocalDate date = DateTimeUtil.tryParseFindDate(word);
+            return date == null ? null : wholeDays(date, date);
+        }
+        String first = word.substring(0, delimiterIndex);
+        String last = word.substring(delimiterIndex + DATE_RANGE_DELIMITER.length());
+        LocalDate firstDate = DateTimeUtil.tryParseFindDate(first);
+        LocalDate lastDate = DateTimeUtil.tryParseFindDate(last);
+        boolean isFirstValid = first.isEmpty() || firstDate != null;
+        boolean isLastValid = last.isEmpty() || lastDate != null;
+        if (isFirstValid && isLastValid && !(first.isEmpty() && last.isEmpty())) {
+            if (firstDate != null && lastDate != null && lastDate.isBefore(firstDate)) {
+                throw new BuddyException("A date range should end on or after its first date.");
+            }
+            return wholeDays(firstDate, lastDate);
+        }
+        if (Character.isDigit(word.charAt(0))) {
+            throw new BuddyException("Please write date ranges as yyyy-MM-dd..yyyy-MM-dd, "
+                    + "e.g. 2026-02-01..2026-02-28.");
+        }
+        return null; // Text that happens to contain the delimiter
+    }
+
+    /**
+     * Returns the time range of a relative due date such as "today", which is relative to now.
+     */
+    private static LocalDateTime[] parseRelativeDue(String keyword, LocalDateTime now) throws BuddyException {
+        LocalDate today = now.toLocalDate();
+        if (keyword.equalsIgnoreCase(TODAY_KEYWORD)) {
+            return wholeDays(today, today);
+        } else if (keyword.equalsIgnoreCase(THIS_WEEK_KEYWORD)) {
+            return wholeDays(today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+                    today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)));
+        } else if (keyword.equalsIgnoreCase(OVERDUE_KEYWORD)) {
+            return new LocalDateTime[]{null, now.minusNanos(1)};
+        }
+        throw new BuddyException("Please write due:today, due:this-week or due:overdue, "
+                + "or compare due dates as in due<2026-03-01.");
+    }
+
+    private static LocalDateTime[] wholeDays(LocalDate firstDay, LocalDate lastDay) {
+        return new LocalDateTime[]{firstDay == null ? null : firstDay.atStartOfDay(),
+                lastDay == null ? null : lastDay.atTime(LocalTime.MAX)};
+    }
+
+    private static boolean isDueComparison(String word) {
+        return word.length() > DUE_PREFIX.length() && word.regionMatches(true, 0, DUE_PREFIX, 0, DUE_PREFIX.length())
+                && "<>=".indexOf(word.charAt(DUE_PREFIX.length())) != -1;
+    }
+
+    /**
+     * Parses a due date comparison such as "due<2026-03-01" into the first and last days it allows,
+     * either of which is null if the range is open at that end.
+     */
+    private static LocalDate[] parseDueComparison(String word) throws BuddyException {
+        int operatorStart = DUE_PREFIX.length();
+        int operatorEnd = operatorStart + 1;
+        if (operatorEnd < word.length() && word.charAt(operatorEnd) == '=') {
+            operatorEnd++;
+        }
+        String operator = word.substring(operatorStart, operatorEnd);
+        LocalDate date = DateTimeUtil.tryParseFindDate(word.substring(operatorEnd));
+        if (date == null) {
+            throw new BuddyException("Please write due dates in searches as yyyy-MM-dd, e.g. due<2026-03-01.");
+        }
+        return switch (operator) {
+        case "<" -> new LocalDate[]{null, date.minusDays(1)};
+        case "<=" -> new LocalDate[]{null, date};
+        case ">" -> new LocalDate[]{date.plusDays(1), null};
+        case ">=" -> new LocalDate[]{date, null};
+        case "=", "==" -> new LocalDate[]{date, date};
+        default -> throw new BuddyException("Please compare due dates with <, <=, >, >= or =.");
+        };
     }
 
     private static String[] splitTag(String content) throws BuddyException {
@@ -1,19 +1,62 @@
 package buddy;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import buddy.task.FileFormatLines;
+import buddy.task.Task;
+import buddy.task.TaskBinaryFormat;
+import buddy.task.TaskJournal;
+import buddy.task.TaskList;
 
 /**
  * Storage handles loading and saving tasks to a file.
  */
 public class Storage {
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String JOURNAL_HEADER_PREFIX = "# ";
+    private static final String REJECTED_JOURNAL_SUFFIX = ".rejected";
+    private static final int JOURNAL_COMPACTION_THRESHOLD = 1000;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int WRITE_BUFFER_SIZE = 8192;
+    private static final long COMMIT_WINDOW_NANOS = 2_000_000;
+
     private final String filePath;
+    private final StorageMode mode;
+    private final StorageFormat format;
+    private final Object commitLock = new Object();
+    private volatile String snapshotChecksum;
+    private int journalSize;
+    private Snapshot pendingSnapshot;
+    private long requestedGeneration;
+    private long flushedGeneration;
+    private long flushCount;
+    private boolean isFlushing;
+    private WriteBehindPersister persister;
 
     /**
      * Creates a Storage object with the specified file path.
@@ -21,7 +64,62 @@ public class Storage {
      * @param filePath the path to the storage file
      */
     public Storage(String filePath) {
+        this(filePath, StorageMode.SNAPSHOT);
+    }
+
+    /**
+     * Creates a Storage object with the specified file path and persistence mode.
+     *
+     * @param filePath the path to the storage file
+     * @param mode the persistence mode to use
+     */
+    public Storage(String filePath, StorageMode mode) {
+        this(filePath, mode, StorageFormat.TEXT);
+    }
+
+    /**
+     * Creates a Storage object with the specified file path, persistence mode and file format.
+     *
+     * @param filePath the path to the storage file
+     * @param mode the persistence mode to use
+     * @param format the format to write the task file in
+     */
+    public Storage(String filePath, StorageMode mode, StorageFormat format) {
+        assert mode != null : "Storage mode should not be null";
+        assert format != null : "Storage format should not be null";
         this.filePath = filePath;
+        this.mode = mode;
+        this.format = format;
+    }
+
+    /**
+     * Returns whether changes are appended to a journal instead of rewriting the task file.
+     *
+     * @return true if this storage runs in journal mode
+     */
+    public boolean isJournaled() {
+        return mode == StorageMode.JOURNAL;
+    }
+
+    /**
+     * Returns whether the existing task file is in the binary format, whatever format this storage writes.
+     *
+     * @return true if the task file exists and is binary
+     * @throws BuddyException if there's an error reading the file
+     */
+    public boolean hasBinaryFile() throws BuddyException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            return false;
+        }
+
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = new byte[4];
+            int length = in.readNBytes(header, 0, header.length);
+            return TaskBinaryFormat.isBinary(header, length);
+        } catch (IOException e) {
+            throw new BuddyException("Error loading tasks from file: " + e.getMessage());
+        }
     }
 
     /**
@@ -32,45 +130,447 @@ public class Storage {
      */
     public List<String> load() throws BuddyException {
         List<String> tasks = new ArrayList<>();
-        File file = new File(filePath);
-        if (!file.exists()) {
-            return tasks; // Return empty list if file doesn't exist yet
+        forEachLine(tasks::add);
+        return tasks;
+    }
+
+    /**
+     * Streams the lines of the storage file to a consumer, one at a time, without holding
+     * the whole file in memory. A binary task file is converted to text lines as it is read.
+     *
+     * @param lineConsumer the consumer to receive each line in file order
+     * @throws BuddyException if there's an error reading the file
+     */
+    public void forEachLine(Consumer<String> lineConsumer) throws BuddyException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            return; // Nothing to stream if file doesn't exist yet
+        }
+        if (hasBinaryFile()) {
+            forEachTask(task -> lineConsumer.accept(task.toFileFormat()));
+            return;
         }
 
-        try {
-            Path path = Paths.get(filePath);
-            tasks = Files.readAllLines(path);
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineConsumer.accept(line);
+            }
         } catch (IOException e) {
             throw new BuddyException("Error loading tasks from file: " + e.getMessage());
         }
+    }
 
-        return tasks;
+    /**
+     * Streams the tasks of a binary task file to a consumer in list order.
+     *
+     * @param taskConsumer the consumer to receive each task
+     * @throws BuddyException if the file is not a valid binary task file or can't be read
+     */
+    public void forEachTask(Consumer<Task> taskConsumer) throws BuddyException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            TaskBinaryFormat.read(in, Files.size(path), taskConsumer);
+        } catch (IOException e) {
+            throw new BuddyException("Error loading tasks from file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the journal records written since the task file was last compacted.
+     * A journal that was written against a different task file (e.g. one left behind
+     * by a compaction that was interrupted) is ignored, as its changes are already folded in.
+     * A last record without its line separator was cut short by a crash while it was appended,
+     * so the change it describes never finished and the record is dropped.
+     *
+     * @return the journal records in the order they were appended
+     * @throws BuddyException if there's an error reading the journal
+     */
+    public List<String> loadJournal() throws BuddyException {
+        List<String> records = new ArrayList<>();
+        Path journalPath = getJournalPath();
+        if (!Files.exists(journalPath)) {
+            return records;
+        }
+
+        try {
+            String content = Files.readString(journalPath, StandardCharsets.UTF_8);
+            List<String> lines = content.lines().toList();
+            if (lines.isEmpty() || !lines.get(0).equals(JOURNAL_HEADER_PREFIX + getSnapshotChecksum())) {
+                Files.delete(journalPath);
+                return records;
+            }
+            int end = content.endsWith("\n") ? lines.size() : lines.size() - 1;
+            records.addAll(lines.subList(1, Math.max(1, end)));
+        } catch (IOException e) {
+            throw new BuddyException("Error loading journal from file: " + e.getMessage());
+        }
+
+        journalSize = records.size();
+        return records;
+    }
+
+    /**
+     * Applies the journal records to the task list and compacts them into the task file.
+     * Records address tasks by list position, so replay stops at the first record that cannot be applied:
+     * after it, a delete or mark could hit a different task than the one the user chose.
+     * The journal is then moved aside unchanged before the records replayed so far are compacted,
+     * so the rejected record and everything after it can still be recovered by hand.
+     *
+     * @param taskList the task list loaded from the task file
+     * @throws BuddyException if the journal cannot be read or written, or a record was rejected
+     */
+    public void replayJournal(TaskList taskList) throws BuddyException {
+        List<String> records = loadJournal();
+        if (records.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                TaskJournal.apply(records.get(i), taskList);
+            } catch (BuddyException e) {
+                Path keptPath = moveJournalAside();
+                commit(taskList);
+                throw new BuddyException("Journal record " + (i + 1) + " (" + records.get(i) + ") is invalid: "
+                        + e.getMessage() + ". Stopped before it and kept the journal as " + keptPath + ".");
+            }
+        }
+        commit(taskList);
+    }
+
+    /**
+     * Persists a change to the task list. In journal mode the given records are appended
+     * to the journal, and the task file is only rewritten once the journal grows too large.
+     * In write-behind mode the save is handed to a background thread and this returns at once.
+     * Otherwise, or when no records are given, the whole task list is saved.
+     *
+     * @param taskList the task list after the change
+     * @param journalRecords the journal records describing the change
+     * @throws BuddyException if there's an error writing to the file
+     */
+    public void commit(TaskList taskList, String... journalRecords) throws BuddyException {
+        assert taskList != null : "TaskList should not be null";
+        if (mode == StorageMode.WRITE_BEHIND) {
+            getPersister().markDirty(taskList);
+            return;
+        }
+        if (isJournaled() && journalRecords.length > 0
+                && appendJournal(journalRecords) < JOURNAL_COMPACTION_THRESHOLD) {
+            return;
+        }
+        if (format == StorageFormat.TEXT) {
+            save(taskList.toFileFormat());
+        } else {
+            write(encode(taskList));
+        }
+    }
+
+    /**
+     * Waits for changes handed to the background thread in write-behind mode to reach the task file.
+     * Does nothing in other modes, as they save before a command returns.
+     *
+     * @throws BuddyException if there's an error writing to the file
+     */
+    public void flush() throws BuddyException {
+        WriteBehindPersister current;
+        synchronized (commitLock) {
+            current = persister;
+        }
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    /**
+     * Returns how many saves were skipped in write-behind mode because a later save covered them.
+     *
+     * @return the number of combined saves
+     */
+    public long getCoalescedSaveCount() {
+        synchronized (commitLock) {
+            return persister == null ? 0 : persister.getCoalescedSaveCount();
+        }
     }
 
     /**
-     * Saves tasks to the storage file.
+     * Saves tasks to the storage file, converting them to the binary format if this storage writes binary.
      *
      * @param tasks the list of task strings to save
      * @throws BuddyException if there's an error writing to the file
      */
     public void save(List<String> tasks) throws BuddyException {
+        if (format == StorageFormat.TEXT) {
+            write(out -> writeLines(out, tasks));
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            TaskBinaryFormat.fromText(tasks, bytes);
+        } catch (IOException e) {
+            throw new BuddyException("Error saving tasks to file: " + e.getMessage());
+        }
+        write(bytes::writeTo);
+    }
+
+    /**
+     * Captures the current state of the task list, ready to be written in this storage's format.
+     * The task list's snapshot is immutable, so records are serialized straight to the file when it is written.
+     */
+    Snapshot encode(TaskList taskList) {
+        if (format == StorageFormat.TEXT) {
+            List<String> lines = taskList.toFileFormat();
+            return out -> writeLines(out, lines);
+        }
+        List<Task> tasks = taskList.getAllTasks();
+        return out -> TaskBinaryFormat.write(tasks, out);
+    }
+
+    /**
+     * Writes a snapshot to the storage file.
+     * In atomic, journal and write-behind modes the snapshot is written to a temporary file that is
+     * forced to disk and then renamed over the task file, so a crash mid-save leaves the previous file intact.
+     * Saves that arrive within the commit window of another one, or while it is being flushed, share a flush.
+     * In journal mode this also compacts the journal, as the snapshot already includes its changes.
+     */
+    void write(Snapshot snapshot) throws BuddyException {
+        try {
+            createParentDirectory(new File(filePath));
+            if (mode == StorageMode.SNAPSHOT) {
+                try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filePath))) {
+                    snapshot.writeTo(out);
+                }
+                snapshotChecksum = null;
+            } else {
+                groupCommit(snapshot);
+            }
+        } catch (IOException e) {
+            throw new BuddyException("Error saving tasks to file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of times the task file has been flushed to disk by a durable save.
+     *
+     * @return the number of flushes
+     */
+    public long getFlushCount() {
+        synchronized (commitLock) {
+            return flushCount;
+        }
+    }
+
+    /**
+     * Flushes the latest pending tasks, unless a save that started later has already flushed them.
+     * The caller that finds no flush in progress becomes the leader. It holds the flush open for a short
+     * commit window so saves arriving from other threads can join, then writes the newest tasks once,
+     * covering every save that was requested before the write began. The other callers wait for that flush.
+     */
+    private void groupCommit(Snapshot snapshot) throws IOException {
+        Snapshot batch;
+        long batchGeneration;
+        synchronized (commitLock) {
+            pendingSnapshot = snapshot;
+            long generation = ++requestedGeneration;
+            while (isFlushing && flushedGeneration < generation) {
+                try {
+                    commitLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for save to complete");
+                }
+            }
+            if (flushedGeneration >= generation) {
+                return;
+            }
+            isFlushing = true;
+            awaitCommitWindow();
+            batch = pendingSnapshot;
+            batchGeneration = requestedGeneration;
+        }
+
+        boolean isFlushed = false;
+        try {
+            writeAtomically(batch);
+            isFlushed = true;
+        } finally {
+            synchronized (commitLock) {
+                isFlushing = false;
+                if (isFlushed) {
+                    flushedGeneration = batchGeneration;
+                    flushCount++;
+                    if (flushedGeneration == requestedGeneration) {
+                        pendingSnapshot = null;
+                    }
+                }
+                commitLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Releases the commit lock for the commit window, so other saves can replace the pending snapshot.
+     * An interrupt cuts the window short; the leader still flushes, as followers are waiting on it.
+     */
+    private void awaitCommitWindow() {
+        assert Thread.holdsLock(commitLock) : "Commit window should be held under the commit lock";
+        long deadline = System.nanoTime() + COMMIT_WINDOW_NANOS;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                commitLock.wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void writeAtomically(Snapshot snapshot) throws IOException {
+        Path path = Paths.get(filePath).toAbsolutePath();
+        Path tempPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), TEMP_SUFFIX);
         try {
-            File file = new File(filePath);
-            File parentDir = file.getParentFile();
-            // Create parent directory if it doesn't exist
-            if (parentDir != null && !parentDir.exists()) {
-                if (!parentDir.mkdirs()) {
-                    throw new BuddyException("Failed to create directory: " + parentDir.getAbsolutePath());
+            CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE);
+                    OutputStream out = new BufferedOutputStream(
+                            new CheckedOutputStream(Channels.newOutputStream(channel), crc))) {
+                snapshot.writeTo(out);
+                out.flush();
+                channel.force(true);
+            }
+            String checksum = formatChecksum(Files.size(tempPath), crc);
+            try {
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            snapshotChecksum = checksum;
+            if (isJournaled()) {
+                Files.deleteIfExists(getJournalPath());
+                journalSize = 0;
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Streams the lines to the output through one buffer. Lines from a task list are serialized
+     * straight into it rather than formatted one string at a time.
+     */
+    private static void writeLines(OutputStream out, List<String> tasks) throws IOException {
+        // Not closed, as the caller still needs the underlying stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        if (tasks instanceof FileFormatLines lines) {
+            lines.writeTo(writer, System.lineSeparator());
+        } else {
+            for (String task : tasks) {
+                writer.write(task);
+                writer.write(System.lineSeparator());
+            }
+        }
+        writer.flush();
+    }
+
+    private static String formatChecksum(long size, CRC32 crc) {
+        return size + " " + Long.toHexString(crc.getValue());
+    }
+
+    private int appendJournal(String... records) throws BuddyException {
+        Path journalPath = getJournalPath();
+        try {
+            createParentDirectory(journalPath.toFile());
+            boolean isNewJournal = !Files.exists(journalPath);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(journalPath.toFile(), true), StandardCharsets.UTF_8))) {
+                if (isNewJournal) {
+                    writer.write(JOURNAL_HEADER_PREFIX + getSnapshotChecksum() + System.lineSeparator());
+                    journalSize = 0;
+                }
+                for (String record : records) {
+                    writer.write(record + System.lineSeparator());
                 }
             }
+        } catch (IOException e) {
+            throw new BuddyException("Error writing to journal: " + e.getMessage());
+        }
+        journalSize += records.length;
+        return journalSize;
+    }
 
-            try (FileWriter writer = new FileWriter(file)) {
-                for (String task : tasks) {
-                    writer.write(task + System.lineSeparator());
+    /**
+     * Returns the size and CRC32 of the task file, which ties a journal to the snapshot it extends.
+     */
+    private String getSnapshotChecksum() throws IOException {
+        if (snapshotChecksum != null) {
+            return snapshotChecksum;
+        }
+        CRC32 crc = new CRC32();
+        long size = 0;
+        Path path = Paths.get(filePath);
+        if (Files.exists(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
+                    size += read;
                 }
             }
+        }
+        snapshotChecksum = formatChecksum(size, crc);
+        return snapshotChecksum;
+    }
+
+    /**
+     * Moves the journal to the first free .rejected name next to it and returns where it went.
+     */
+    private Path moveJournalAside() throws BuddyException {
+        Path keptPath = Paths.get(filePath + JOURNAL_SUFFIX + REJECTED_JOURNAL_SUFFIX);
+        for (int i = 1; Files.exists(keptPath); i++) {
+            keptPath = Paths.get(filePath + JOURNAL_SUFFIX + REJECTED_JOURNAL_SUFFIX + "." + i);
+        }
+        try {
+            Files.move(getJournalPath(), keptPath);
         } catch (IOException e) {
-            throw new BuddyException("Error saving tasks to file: " + e.getMessage());
+            throw new BuddyException("Error keeping the rejected journal: " + e.getMessage());
+        }
+        journalSize = 0;
+        return keptPath;
+    }
+
+    private Path getJournalPath() {
+        return Paths.get(filePath + JOURNAL_SUFFIX);
+    }
+
+    private WriteBehindPersister getPersister() {
+        synchronized (commitLock) {
+            if (persister == null) {
+                persister = new WriteBehindPersister(this);
+            }
+            return persister;
+        }
+    }
+
+    /**
+     * The serialized state of a task list, captured so it can be written later or by another thread.
+     */
+    @FunctionalInterface
+    interface Snapshot {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private void createParentDirectory(File file) throws BuddyException {
+        File parentDir = file.getParentFile();
+        // Create parent directory if it doesn't exist
+        if (parentDir != null && !parentDir.exists()) {
+            if (!parentDir.mkdirs()) {
+                throw new BuddyException("Failed to create directory: " + parentDir.getAbsolutePath());
+            }
         }
     }
 }
@@ -0,0 +1,29 @@
+package buddy;
+
+/**
+ * Enum representing the file formats Storage can write tasks in.
+ */
+public enum StorageFormat {
+    /** The human-readable "T | 0 | description" format, one task per line. */
+    TEXT,
+    /** The compact binary format defined by TaskBinaryFormat. */
+    BINARY;
+
+    /**
+     * Maps a format name (case-insensitive) to its StorageFormat.
+     *
+     * @param name the format name, may be null
+     * @return the matching format, or TEXT if the name is missing or unknown
+     */
+    public static StorageFormat fromName(String name) {
+        if (name == null) {
+            return TEXT;
+        }
+        for (StorageFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name.trim())) {
+                return format;
+            }
+        }
+        return TEXT;
+    }
+}
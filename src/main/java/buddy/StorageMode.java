@@ -0,0 +1,33 @@
+package buddy;
+
+/**
+ * Enum representing the strategies Storage can use to persist tasks.
+ */
+public enum StorageMode {
+    /** Rewrites the whole task file after every change. */
+    SNAPSHOT,
+    /** Rewrites the whole task file through a temporary file that is flushed to disk and renamed into place. */
+    ATOMIC,
+    /** Appends one record per change to a journal that is folded into the task file later. */
+    JOURNAL,
+    /** Saves atomically on a background thread, combining changes that arrive close together. */
+    WRITE_BEHIND;
+
+    /**
+     * Maps a mode name (case-insensitive) to its StorageMode.
+     *
+     * @param name the mode name, may be null
+     * @return the matching mode, or SNAPSHOT if the name is missing or unknown
+     */
+    public static StorageMode fromName(String name) {
+        if (name == null) {
+            return SNAPSHOT;
+        }
+        for (StorageMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name.trim())) {
+                return mode;
+            }
+        }
+        return SNAPSHOT;
+    }
+}
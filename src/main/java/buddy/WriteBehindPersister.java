@@ -0,0 +1,224 @@
+package buddy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import buddy.task.TaskList;
+
+/**
+ * WriteBehindPersister saves a task list on a background thread so commands do not wait for disk I/O.
+ * Changes that arrive close together are combined into a single save of the latest state.
+ */
+class WriteBehindPersister {
+    private static final long QUIET_PERIOD_MS = 50;
+    private static final long MAX_DELAY_MS = 500;
+    private static final long FLUSH_TIMEOUT_MS = 10_000;
+    private static final String FLUSH_TIMEOUT_MESSAGE = "Timed out waiting for tasks to be saved.";
+    private static final String FLUSH_INTERRUPTED_MESSAGE = "Interrupted while waiting for tasks to be saved.";
+
+    private final Storage storage;
+    // Held while a save is encoded and written, so saves reach the storage one at a time
+    private final ReentrantLock saveLock = new ReentrantLock();
+    private TaskList taskList;
+    private boolean isDirty;
+    private long firstDirtyAt;
+    private long lastDirtyAt;
+    private int pendingMarks;
+    private long coalescedSaveCount;
+    private BuddyException failure;
+    private long takenGeneration;
+    private long settledGeneration;
+    private long writtenGeneration;
+
+    /**
+     * Creates a persister that writes through the given storage and starts its background thread.
+     *
+     * @param storage the storage to write the task list to
+     */
+    WriteBehindPersister(Storage storage) {
+        this.storage = storage;
+        Thread worker = new Thread(this::runWorker, "buddy-write-behind");
+        worker.setDaemon(true);
+        worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushQuietly, "buddy-write-behind-shutdown"));
+    }
+
+    /**
+     * Records that the task list has changed and schedules a save. Returns immediately.
+     *
+     * @param taskList the task list to save
+     * @throws BuddyException if an earlier background save failed
+     */
+    synchronized void markDirty(TaskList taskList) throws BuddyException {
+        this.taskList = taskList;
+        long now = System.currentTimeMillis();
+        if (!isDirty) {
+            isDirty = true;
+            firstDirtyAt = now;
+        }
+        lastDirtyAt = now;
+        pendingMarks++;
+        notifyAll();
+        throwFailure();
+    }
+
+    /**
+     * Saves any pending changes on the calling thread, and waits for a save the background thread
+     * has already started to finish. Gives up once the flush timeout has passed.
+     *
+     * @throws BuddyException if the save fails or does not finish in time
+     */
+    void flush() throws BuddyException {
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MS;
+        lockSaves(deadline);
+        try {
+            PendingSave pending = takePending();
+            if (pending != null) {
+                try {
+                    save(pending);
+                } finally {
+                    settle(pending.generation(), null);
+                }
+            }
+        } finally {
+            saveLock.unlock();
+        }
+        awaitSettled(deadline);
+    }
+
+    /**
+     * Returns how many requested saves were skipped because a later save covered them.
+     *
+     * @return the number of combined saves
+     */
+    synchronized long getCoalescedSaveCount() {
+        return coalescedSaveCount;
+    }
+
+    private void runWorker() {
+        while (true) {
+            PendingSave pending;
+            try {
+                pending = awaitPending();
+            } catch (InterruptedException e) {
+                return;
+            }
+            BuddyException error = null;
+            saveLock.lock();
+            try {
+                save(pending);
+            } catch (BuddyException e) {
+                error = e;
+            } finally {
+                saveLock.unlock();
+            }
+            settle(pending.generation(), error);
+        }
+    }
+
+    /**
+     * Waits until the task list is dirty and no further change has arrived for a quiet period,
+     * but never longer than the maximum delay after the first unsaved change.
+     */
+    private synchronized PendingSave awaitPending() throws InterruptedException {
+        while (true) {
+            if (!isDirty) {
+                wait();
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            long deadline = Math.min(lastDirtyAt + QUIET_PERIOD_MS, firstDirtyAt + MAX_DELAY_MS);
+            if (now >= deadline) {
+                return takePending();
+            }
+            wait(deadline - now);
+        }
+    }
+
+    private synchronized PendingSave takePending() {
+        if (!isDirty) {
+            return null;
+        }
+        isDirty = false;
+        coalescedSaveCount += pendingMarks - 1;
+        pendingMarks = 0;
+        return new PendingSave(taskList, ++takenGeneration);
+    }
+
+    /**
+     * Writes the pending task list, unless a save taken after it has already been written.
+     * The worker takes its save before it gets the save lock, so a flush can overtake it.
+     */
+    private void save(PendingSave pending) throws BuddyException {
+        assert saveLock.isHeldByCurrentThread() : "Saves should be made under the save lock";
+        if (pending.generation() < writtenGeneration) {
+            synchronized (this) {
+                coalescedSaveCount++;
+            }
+            return;
+        }
+        // The task list hands out immutable snapshots, so encoding needs no lock against the command thread
+        storage.write(storage.encode(pending.taskList()));
+        writtenGeneration = pending.generation();
+    }
+
+    private void lockSaves(long deadline) throws BuddyException {
+        try {
+            if (!saveLock.tryLock(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS)) {
+                throw new BuddyException(FLUSH_TIMEOUT_MESSAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BuddyException(FLUSH_INTERRUPTED_MESSAGE);
+        }
+    }
+
+    private synchronized void settle(long generation, BuddyException error) {
+        if (error != null) {
+            failure = error;
+        }
+        settledGeneration = Math.max(settledGeneration, generation);
+        notifyAll();
+    }
+
+    /**
+     * Waits until every save taken so far has been written or has failed.
+     */
+    private synchronized void awaitSettled(long deadline) throws BuddyException {
+        while (settledGeneration < takenGeneration) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new BuddyException(FLUSH_TIMEOUT_MESSAGE);
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BuddyException(FLUSH_INTERRUPTED_MESSAGE);
+            }
+        }
+        throwFailure();
+    }
+
+    private void throwFailure() throws BuddyException {
+        if (failure != null) {
+            BuddyException e = failure;
+            failure = null;
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (BuddyException e) {
+            System.err.println("Error saving tasks on shutdown: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A task list taken for saving, numbered in the order saves were taken.
+     */
+    private record PendingSave(TaskList taskList, long generation) {
+    }
+}
@@ -11,15 +11,20 @@ import buddy.task.TaskList;
  */
 public class ByeCommand extends Command {
     /**
-     * Executes the bye command which signals the application to exit.
+     * Executes the bye command which flushes pending saves and signals the application to exit.
      * @param taskList The list of tasks (not used in this command).
-     * @param ui The user interface (not used in this command).
-     * @param storage The storage handler (not used in this command).
+     * @param ui The user interface for error display.
+     * @param storage The storage handler to flush.
      * @throws BuddyException Not thrown in this command.
      */
     @Override
     public void execute(TaskList taskList, Ui ui, Storage storage) throws BuddyException {
-        // No action needed - exit is handled by isExit() method
+        // Exit itself is handled by isExit() method
+        try {
+            storage.flush();
+        } catch (BuddyException e) {
+            ui.showError("Error saving tasks: " + e.getMessage());
+        }
     }
 
     /**
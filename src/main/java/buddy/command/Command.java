@@ -1,19 +1,28 @@
 package buddy.command;
 
-import java.util.ArrayList;
-import java.util.function.Consumer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
 
 import buddy.BuddyException;
 import buddy.Parser;
 import buddy.Storage;
 import buddy.Ui;
 import buddy.task.Task;
+import buddy.task.TaskChange;
+import buddy.task.TaskJournal;
 import buddy.task.TaskList;
 
 /**
  * Abstract base class for all commands.
  */
 public abstract class Command {
+    private static final String TASK_SELECTION_DELIMITER = ",";
+    /** The most tasks a bulk change lists by name; the rest are counted. */
+    private static final int MAX_LISTED_TASKS = 10;
+
     @FunctionalInterface
     protected interface TaskSupplier {
         Task get();
@@ -50,46 +59,91 @@ public abstract class Command {
     }
 
     /**
-     * Parses and validates a 0-based task index from user input.
+     * Parses and validates the 0-based task indexes a command applies to.
+     * Tasks may be given by list number, by ID as in "mark @12", by a range of list numbers as in "mark 1-500",
+     * or by a comma-separated mix of these as in "delete 3,7,@12". "mark #work" selects every task with a tag.
      *
      * @param userInput the full user input
      * @param commandLength the command keyword length
      * @param taskList the task list for bounds checking
-     * @return the validated 0-based index
+     * @return the validated 0-based indexes, sorted and without repeats
      * @throws BuddyException if parsing or validation fails
      */
-    protected int parseValidatedIndex(String userInput, int commandLength, TaskList taskList) throws BuddyException {
-        int taskIndex = Parser.parseTaskNumber(userInput, commandLength);
-        requireValidIndex(taskIndex, taskList);
-        return taskIndex;
+    protected int[] parseValidatedIndexes(String userInput, int commandLength, TaskList taskList)
+            throws BuddyException {
+        String selection = userInput.length() > commandLength ? userInput.substring(commandLength).trim() : "";
+        if (selection.startsWith("#")) {
+            return indexesWithTag(selection, taskList);
+        }
+        BitSet indexes = new BitSet();
+        for (String part : selection.split(TASK_SELECTION_DELIMITER, -1)) {
+            if (Parser.isTaskIdReference(part, 0)) {
+                int taskIndex = taskList.indexOfId(Parser.parseTaskId(part, 0));
+                if (taskIndex == -1) {
+                    throw new BuddyException("Task ID does not exist.");
+                }
+                indexes.set(taskIndex);
+            } else {
+                int[] range = Parser.parseTaskRange(part);
+                requireValidIndex(range[0], taskList);
+                requireValidIndex(range[1], taskList);
+                indexes.set(range[0], range[1] + 1);
+            }
+        }
+        return indexes.stream().toArray();
     }
+
+    private int[] indexesWithTag(String selection, TaskList taskList) throws BuddyException {
+        String tag = Task.normaliseTag(selection);
+        if (tag == null) {
+            throw new BuddyException("Please provide a valid tag, e.g. #work.");
+        }
+        List<Task> taggedTasks = taskList.getTasksWithTag(tag);
+        int[] indexes = new int[taggedTasks.size()];
+        int count = 0;
+        for (Task task : taggedTasks) {
+            // Skip a task deleted since the tag lookup
+            int taskIndex = taskList.indexOfId(task.getId());
+            if (taskIndex != -1) {
+                indexes[count++] = taskIndex;
+            }
+        }
+        if (count == 0) {
+            throw new BuddyException("No tasks found with tag: #" + tag);
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
     /**
      * Saves the task list to storage.
      * @param taskList The task list to save.
      * @param ui The user interface for error display.
      * @param storage The storage handler.
+     * @param journalRecords The journal records describing the change.
      */
-    protected void saveTasks(TaskList taskList, Ui ui, Storage storage) {
+    protected void saveTasks(TaskList taskList, Ui ui, Storage storage, String... journalRecords) {
         assert taskList != null : "TaskList should not be null";
         assert storage != null : "Storage should not be null";
         assert ui != null : "Ui should not be null";
         try {
-            storage.save(new ArrayList<>(taskList.toFileFormat()));
+            storage.commit(taskList, journalRecords);
         } catch (BuddyException e) {
             ui.showError("Error saving tasks: " + e.getMessage());
         }
     }
 
     /**
-     * Updates a task (mark/unmark), saves, and prints a confirmation message.
+     * Updates the selected tasks (mark/unmark) as one change, saves once, and prints a confirmation message.
      *
      * @param userInput the full user input
      * @param commandLength the command keyword length
      * @param taskList the task list for lookup
      * @param ui the user interface for output
      * @param storage the storage handler for saving tasks
-     * @param taskUpdater the update action to apply to the task
-     * @param headerMessage the header message for the confirmation box
+     * @param taskUpdater the update that applies to the tasks at the given indexes and returns them
+     * @param journalRecord builds the journal record for each updated index
+     * @param headerMessage the header message for the confirmation box when one task is updated
+     * @param bulkHeaderMessage the header message when several tasks are updated, with %d for the count
      * @throws BuddyException if parsing or validation fails
      */
     protected void updateTaskAndReport(
@@ -98,16 +152,44 @@ public abstract class Command {
             TaskList taskList,
             Ui ui,
             Storage storage,
-            Consumer<Task> taskUpdater,
-            String headerMessage) throws BuddyException {
-        int taskIndex = parseValidatedIndex(userInput, commandLength, taskList);
-        Task task = taskList.getTask(taskIndex);
-        taskUpdater.accept(task);
-        saveTasks(taskList, ui, storage);
-        ui.printBox(
-            headerMessage,
-            "  " + task
-        );
+            BiFunction<TaskList, int[], List<Task>> taskUpdater,
+            IntFunction<String> journalRecord,
+            String headerMessage,
+            String bulkHeaderMessage) throws BuddyException {
+        int[] taskIndexes = parseValidatedIndexes(userInput, commandLength, taskList);
+        List<Task> tasks = taskUpdater.apply(taskList, taskIndexes);
+        String[] journalRecords = new String[taskIndexes.length];
+        for (int i = 0; i < taskIndexes.length; i++) {
+            journalRecords[i] = journalRecord.apply(taskIndexes[i]);
+        }
+        saveTasks(taskList, ui, storage, journalRecords);
+        reportTasks(tasks, headerMessage, bulkHeaderMessage, ui);
+    }
+
+    /**
+     * Prints a confirmation box listing the tasks a command changed. Only the first few tasks of a large
+     * change are listed, so the message stays short however many tasks it covers.
+     *
+     * @param tasks the changed tasks
+     * @param headerMessage the header message when one task changed
+     * @param bulkHeaderMessage the header message when several tasks changed, with %d for the count
+     * @param ui the user interface for output
+     * @param footerLines lines to print after the tasks
+     */
+    protected void reportTasks(List<Task> tasks, String headerMessage, String bulkHeaderMessage, Ui ui,
+            String... footerLines) {
+        int listed = Math.min(tasks.size(), MAX_LISTED_TASKS);
+        boolean hasMore = tasks.size() > listed;
+        String[] lines = new String[1 + listed + (hasMore ? 1 : 0) + footerLines.length];
+        lines[0] = tasks.size() == 1 ? headerMessage : String.format(bulkHeaderMessage, tasks.size());
+        for (int i = 0; i < listed; i++) {
+            lines[i + 1] = "  " + tasks.get(i);
+        }
+        if (hasMore) {
+            lines[listed + 1] = "  ...and " + (tasks.size() - listed) + " more.";
+        }
+        System.arraycopy(footerLines, 0, lines, lines.length - footerLines.length, footerLines.length);
+        ui.printBox(lines);
     }
 
     /**
@@ -127,7 +209,7 @@ public abstract class Command {
         try {
             Task task = taskSupplier.get();
             taskList.addTask(task);
-            saveTasks(taskList, ui, storage);
+            saveTasks(taskList, ui, storage, TaskJournal.added(task));
             ui.printBox(
                 "Got it! I've added this task to your list:",
                 "  " + task,
@@ -137,4 +219,36 @@ public abstract class Command {
             throw new BuddyException(e.getMessage());
         }
     }
+
+    /**
+     * Saves after an undo or redo and lists the changes it covered.
+     * The whole list is saved, as the journal only records changes made by commands.
+     *
+     * @param changes the changes that were undone or redone, in the order they were made
+     * @param emptyMessage the error message if there were no changes
+     * @param headerMessage the header message for the confirmation box
+     * @param taskList the task list that was changed
+     * @param ui the user interface for output
+     * @param storage the storage handler for saving tasks
+     * @throws BuddyException if there were no changes
+     */
+    protected void reportHistoryChanges(
+            List<TaskChange> changes,
+            String emptyMessage,
+            String headerMessage,
+            TaskList taskList,
+            Ui ui,
+            Storage storage) throws BuddyException {
+        if (changes.isEmpty()) {
+            throw new BuddyException(emptyMessage);
+        }
+        saveTasks(taskList, ui, storage);
+        String[] lines = new String[changes.size() + 1];
+        lines[0] = headerMessage;
+        for (int i = 0; i < changes.size(); i++) {
+            TaskChange change = changes.get(i);
+            lines[i + 1] = "  " + change.kind().name().toLowerCase() + ": " + change.task();
+        }
+        ui.printBox(lines);
+    }
 }
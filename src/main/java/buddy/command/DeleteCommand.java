@@ -1,14 +1,17 @@
 package buddy.command;
 
+import java.util.List;
+
 import buddy.BuddyException;
 import buddy.CommandKeyword;
 import buddy.Storage;
 import buddy.Ui;
 import buddy.task.Task;
+import buddy.task.TaskJournal;
 import buddy.task.TaskList;
 
 /**
- * Command to delete a task.
+ * Command to delete one or more tasks.
  */
 public class DeleteCommand extends Command {
     private final String userInput;
@@ -29,14 +32,21 @@ public class DeleteCommand extends Command {
      */
     @Override
     public void execute(TaskList taskList, Ui ui, Storage storage) throws BuddyException {
-        int taskIndex = parseValidatedIndex(userInput, CommandKeyword.DELETE.length(), taskList);
+        int[] taskIndexes = parseValidatedIndexes(userInput, CommandKeyword.DELETE.length(), taskList);
 
-        // Remove the task and inform the user
-        Task deletedTask = taskList.removeTask(taskIndex);
-        saveTasks(taskList, ui, storage);
-        ui.printBox(
+        // Remove the tasks and inform the user
+        List<Task> deletedTasks = taskList.removeTasks(taskIndexes);
+        // Replaying deletes from the back keeps each recorded index pointing at the same task
+        String[] journalRecords = new String[taskIndexes.length];
+        for (int i = 0; i < taskIndexes.length; i++) {
+            journalRecords[i] = TaskJournal.deleted(taskIndexes[taskIndexes.length - 1 - i]);
+        }
+        saveTasks(taskList, ui, storage, journalRecords);
+        reportTasks(
+            deletedTasks,
             "Got it! I've removed this task:",
-            "  " + deletedTask,
+            "Got it! I've removed these %d tasks:",
+            ui,
             "Now you have " + taskList.size() + " tasks in the list."
         );
     }
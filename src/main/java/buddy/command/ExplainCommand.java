@@ -0,0 +1,70 @@
+package buddy.command;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import buddy.BuddyException;
+import buddy.CommandKeyword;
+import buddy.Parser;
+import buddy.Storage;
+import buddy.Ui;
+import buddy.task.QueryPlan;
+import buddy.task.TaskList;
+import buddy.task.TaskQuery;
+
+/**
+ * Command to show how a find query would be run, as in "explain #work due<2026-03-01 is:undone".
+ */
+public class ExplainCommand extends Command {
+    private static final String FIND_KEYWORD = "find";
+
+    private final String userInput;
+
+    /**
+     * Constructs an ExplainCommand with the given user input.
+     * @param userInput The full user input string for the explain command, optionally followed by find.
+     */
+    public ExplainCommand(String userInput) {
+        this.userInput = userInput;
+    }
+
+    /**
+     * Executes the explain command to display the access path the query would start from,
+     * the checks left for each candidate and the other paths that were considered.
+     * @param taskList The list of tasks the query would search.
+     * @param ui The user interface for displaying messages.
+     * @param storage The storage handler (not used in this command).
+     * @throws BuddyException If there is an error parsing the query.
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws BuddyException {
+        String queryText = userInput.trim().substring(CommandKeyword.EXPLAIN.length()).trim();
+        String[] words = queryText.split("\\s+", 2);
+        if (words[0].equalsIgnoreCase(FIND_KEYWORD)) {
+            queryText = words.length > 1 ? words[1] : "";
+        }
+        TaskQuery query = Parser.parseFindQuery(queryText, 0, LocalDateTime.now());
+        QueryPlan plan = taskList.planQuery(query);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("Plan for find " + query.describe() + ":");
+        lines.add("Start from the " + describePath(plan.chosenPath()));
+        lines.add(plan.residualChecks().isEmpty()
+                ? "Then check nothing else."
+                : "Then check " + String.join(", ", plan.residualChecks()) + ".");
+        if (plan.accessPaths().size() > 1) {
+            lines.add("Also considered:");
+            for (QueryPlan.AccessPath path : plan.accessPaths().subList(1, plan.accessPaths().size())) {
+                lines.add("  the " + describePath(path));
+            }
+        }
+        ui.printBox(lines.toArray(new String[0]));
+    }
+
+    private static String describePath(QueryPlan.AccessPath path) {
+        int estimate = path.estimatedTasks();
+        return path.description() + " (" + (path.kind() == QueryPlan.Kind.KEYWORD ? "at most " : "")
+                + estimate + (estimate == 1 ? " task)" : " tasks)");
+    }
+}
@@ -1,24 +1,25 @@
 package buddy.command;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import buddy.BuddyException;
+import buddy.CommandKeyword;
 import buddy.Parser;
 import buddy.Storage;
 import buddy.Ui;
-import buddy.task.DateTimeUtil;
-import buddy.task.Deadline;
-import buddy.task.Event;
 import buddy.task.Task;
 import buddy.task.TaskList;
+import buddy.task.TaskQuery;
 
 
 /**
- * Command to find tasks by date or keyword search.
+ * Command to find tasks matching a query of tags, filters, dates and keywords,
+ * or the tasks closest to a possibly misspelt keyword.
  */
 public class FindCommand extends Command {
+    private static final int SIMILAR_MATCH_LIMIT = 10;
+
     private final String userInput;
     /**
      * Constructs a FindCommand with the given user input.
@@ -28,7 +29,8 @@ public class FindCommand extends Command {
         this.userInput = userInput;
     }
     /**
-     * Executes the find command to search for tasks by date or keyword.
+     * Executes the find command to search for the tasks matching every criterion of the query,
+     * or for the tasks closest to the keyword after a ~.
      * @param taskList The list of tasks to search through.
      * @param ui The user interface for displaying messages.
      * @param storage The storage handler (not used in this command).
@@ -36,42 +38,22 @@ public class FindCommand extends Command {
      */
     @Override
     public void execute(TaskList taskList, Ui ui, Storage storage) throws BuddyException {
-        String searchTerm = Parser.parseFindDate(userInput);
-
-        if (isTagSearch(searchTerm)) {
-            findByTag(taskList, ui, searchTerm);
+        String fuzzyTerm = Parser.parseFuzzyTerm(userInput, CommandKeyword.FIND.length());
+        if (fuzzyTerm != null) {
+            findSimilar(taskList, ui, fuzzyTerm);
             return;
         }
 
-        // Try to parse as date first
-        try {
-            LocalDate searchDate = DateTimeUtil.parseFindDate(searchTerm);
-            findByDate(taskList, ui, searchDate);
-        } catch (DateTimeParseException e) {
-            // If date parsing fails, search by keyword
-            findByKeyword(taskList, ui, searchTerm);
-        }
-    }
-
-    /**
-     * Searches for tasks on a specific date.
-     */
-    private void findByDate(TaskList taskList, Ui ui, LocalDate searchDate) {
-        ArrayList<Task> matchingTasks = new ArrayList<>();
-
-        // Check Deadlines and Events for matching date
-        for (Task task : taskList.getAllTasks()) {
-            if (matchesDate(task, searchDate)) {
-                matchingTasks.add(task);
-            }
-        }
+        TaskQuery query = Parser.parseFindQuery(userInput, CommandKeyword.FIND.length(), LocalDateTime.now());
+        List<Task> matchingTasks = taskList.findTasks(query);
+        String criteria = describeCriteria(query);
 
         // Display results
         if (matchingTasks.isEmpty()) {
-            ui.printBox("No tasks found on " + searchDate);
+            ui.printBox("No tasks found " + criteria);
         } else {
             String[] lines = new String[matchingTasks.size() + 1];
-            lines[0] = "Tasks on " + searchDate + ":";
+            lines[0] = "Tasks " + criteria + ":";
             for (int i = 0; i < matchingTasks.size(); i++) {
                 lines[i + 1] = (i + 1) + "." + matchingTasks.get(i);
             }
@@ -80,77 +62,35 @@ public class FindCommand extends Command {
     }
 
     /**
-     * Searches for tasks matching a keyword in their description.
+     * Shows the tasks whose descriptions come closest to the term, best first.
      */
-    private void findByKeyword(TaskList taskList, Ui ui, String keyword) {
-        ArrayList<Task> matchingTasks = new ArrayList<>();
-        String lowerKeyword = keyword.toLowerCase();
-        // Search tasks by keyword in description
-        for (Task task : taskList.getAllTasks()) {
-            if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
-                matchingTasks.add(task);
-            }
-        }
+    private void findSimilar(TaskList taskList, Ui ui, String term) {
+        List<Task> closestTasks = taskList.findSimilarTasks(term, SIMILAR_MATCH_LIMIT);
 
-        // Display results
-        if (matchingTasks.isEmpty()) {
-            ui.printBox("No tasks found matching: \"" + keyword + "\"");
+        if (closestTasks.isEmpty()) {
+            ui.printBox("No tasks found close to \"" + term + "\"");
         } else {
-            String[] lines = new String[matchingTasks.size() + 1];
-            lines[0] = "Tasks matching \"" + keyword + "\":";
-            for (int i = 0; i < matchingTasks.size(); i++) {
-                lines[i + 1] = (i + 1) + "." + matchingTasks.get(i);
+            String[] lines = new String[closestTasks.size() + 1];
+            lines[0] = "Closest matches for \"" + term + "\":";
+            for (int i = 0; i < closestTasks.size(); i++) {
+                lines[i + 1] = (i + 1) + "." + closestTasks.get(i);
             }
             ui.printBox(lines);
         }
     }
 
     /**
-     * Searches for tasks matching a tag.
+     * Describes the query for the result header, keeping the familiar wording for a lone tag, date or keyword.
      */
-    private void findByTag(TaskList taskList, Ui ui, String rawTag) throws BuddyException {
-        String tag = Task.normaliseTag(rawTag);
-        if (tag == null) {
-            throw new BuddyException("Find format: find #<tag>");
-        }
-        ArrayList<Task> matchingTasks = new ArrayList<>();
-        for (Task task : taskList.getAllTasks()) {
-            String taskTag = task.getTag();
-            if (taskTag != null && taskTag.equalsIgnoreCase(tag)) {
-                matchingTasks.add(task);
-            }
-        }
-
-        if (matchingTasks.isEmpty()) {
-            ui.printBox("No tasks found with tag: #" + tag);
-        } else {
-            String[] lines = new String[matchingTasks.size() + 1];
-            lines[0] = "Tasks with tag #" + tag + ":";
-            for (int i = 0; i < matchingTasks.size(); i++) {
-                lines[i + 1] = (i + 1) + "." + matchingTasks.get(i);
-            }
-            ui.printBox(lines);
+    private static String describeCriteria(TaskQuery query) {
+        boolean hasOnlyTag = query.tag() != null && query.filters().isEmpty() && !query.hasDateRange()
+                && query.keywords().isEmpty();
+        boolean hasOnlyDate = !query.hasBitmapCriteria() && query.keywords().isEmpty();
+        if (hasOnlyTag) {
+            return "with tag #" + query.tag();
+        } else if (hasOnlyDate && query.hasDateRange()) {
+            return query.describeDateRange();
         }
-    }
-
-    private boolean isTagSearch(String searchTerm) {
-        return searchTerm.trim().startsWith("#");
-    }
-
-    private boolean matchesDate(Task task, LocalDate searchDate) {
-        if (task instanceof Deadline deadline) {
-            return deadline.getDateTime().toLocalDate().equals(searchDate);
-        }
-        if (task instanceof Event event) {
-            return eventCoversDate(event, searchDate);
-        }
-        return false;
-    }
-
-    private boolean eventCoversDate(Event event, LocalDate searchDate) {
-        LocalDate startDate = event.getStartTime().toLocalDate();
-        LocalDate endDate = event.getEndTime().toLocalDate();
-        return (startDate.isBefore(searchDate) || startDate.equals(searchDate))
-                && (endDate.isAfter(searchDate) || endDate.equals(searchDate));
+        return "matching " + query.describe();
     }
 }
@@ -1,35 +1,201 @@
 package buddy.command;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 import buddy.BuddyException;
+import buddy.CommandKeyword;
+import buddy.Constants;
 import buddy.Storage;
 import buddy.Ui;
+import buddy.task.Task;
+import buddy.task.TaskFilter;
 import buddy.task.TaskList;
 
 /**
- * Command to list all tasks.
+ * Command to list tasks, one page or range of list numbers at a time, optionally filtered by status, type or tag
+ * as in "list undone deadlines #work page 2". A range longer than a page shows its first page.
+ * Only the tasks shown are looked up and formatted, so a page costs the same however long the list is.
  */
 public class ListCommand extends Command {
+    private static final String PAGE_KEYWORD = "page";
+    private static final String RANGE_DELIMITER = "-";
+    private static final String USAGE_MESSAGE = "Please use list, list page PAGE_NUMBER or list START-END, "
+            + "optionally after filters such as undone, deadlines or #TAG.";
+
+    private final String userInput;
+
+    /**
+     * Constructs a ListCommand with the given user input.
+     * @param userInput The full user input string for the list command.
+     */
+    public ListCommand(String userInput) {
+        this.userInput = userInput;
+    }
+
     /**
-     * Executes the list command to display all tasks.
+     * Executes the list command to display a page or range of tasks, or a page of the tasks matching filters.
+     * A plain list shows the first page.
      * @param taskList The list of tasks to display.
      * @param ui The user interface for displaying messages.
      * @param storage The storage handler (not used in this command).
-     * @throws BuddyException Not thrown in this command.
+     * @throws BuddyException If the page or range is invalid.
      */
     @Override
     public void execute(TaskList taskList, Ui ui, Storage storage) throws BuddyException {
+        // Read from one snapshot so the page stays consistent with the size it was checked against
+        List<Task> tasks = taskList.getAllTasks();
         // If no tasks, inform the user
-        if (taskList.isEmpty()) {
+        if (tasks.isEmpty()) {
             ui.printBox("Your list is empty! Time to add some goals and get started?");
             return;
         }
 
-        // Prepare lines to print the task list
-        String[] lines = new String[taskList.size() + 1];
-        lines[0] = "Here are the tasks in your list:";
-        for (int i = 0; i < taskList.size(); i++) {
-            lines[i + 1] = (i + 1) + "." + taskList.getTask(i);
+        String argument = userInput.trim().substring(CommandKeyword.LIST.length()).trim();
+        Set<TaskFilter> filters = EnumSet.noneOf(TaskFilter.class);
+        String tag = null;
+        String[] words = argument.split("\\s+");
+        int wordCount = 0;
+        while (wordCount < words.length) {
+            String word = words[wordCount];
+            TaskFilter filter = TaskFilter.fromWord(word);
+            if (filter != null) {
+                filters.add(filter);
+            } else if (word.startsWith("#") && tag == null && Task.normaliseTag(word) != null) {
+                tag = Task.normaliseTag(word);
+            } else {
+                break;
+            }
+            wordCount++;
+        }
+        if (!filters.isEmpty() || tag != null) {
+            printFiltered(taskList, filters, tag, String.join(" ", List.of(words).subList(wordCount, words.length)),
+                    ui);
+        } else if (argument.isEmpty()) {
+            printPage(tasks, 1, ui);
+        } else if (argument.toLowerCase().startsWith(PAGE_KEYWORD)) {
+            printPage(tasks, parseNumber(argument.substring(PAGE_KEYWORD.length())), ui);
+        } else {
+            printRange(tasks, argument, ui);
+        }
+    }
+
+    private void printPage(List<Task> tasks, int page, Ui ui) throws BuddyException {
+        int pageCount = (tasks.size() + Constants.LIST_PAGE_SIZE - 1) / Constants.LIST_PAGE_SIZE;
+        if (page < 1 || page > pageCount) {
+            throw new BuddyException("Page " + page + " does not exist. Your list has " + pageCount
+                    + (pageCount == 1 ? " page." : " pages."));
+        }
+        int from = (page - 1) * Constants.LIST_PAGE_SIZE;
+        int to = Math.min(from + Constants.LIST_PAGE_SIZE, tasks.size());
+        if (pageCount == 1) {
+            printTasks(tasks, from, to, "Here are the tasks in your list:", null, ui);
+        } else {
+            printTasks(tasks, from, to, "Here is page " + page + " of " + pageCount + " of your list:",
+                    page < pageCount ? "Type list page " + (page + 1) + " to see more." : null, ui);
+        }
+    }
+
+    /**
+     * Prints a page of the tasks that match the filters. The matches are counted and found by combining bitmaps,
+     * so only the tasks on the page are visited.
+     */
+    private void printFiltered(TaskList taskList, Set<TaskFilter> filters, String tag, String pageArgument, Ui ui)
+            throws BuddyException {
+        int page = 1;
+        if (!pageArgument.isEmpty()) {
+            if (!pageArgument.toLowerCase().startsWith(PAGE_KEYWORD)) {
+                throw new BuddyException(USAGE_MESSAGE);
+            }
+            page = parseNumber(pageArgument.substring(PAGE_KEYWORD.length()));
+        }
+        int matchCount = taskList.countTasksMatching(filters, tag);
+        if (matchCount == 0) {
+            ui.printBox("No tasks match those filters.");
+            return;
+        }
+        int pageCount = (matchCount + Constants.LIST_PAGE_SIZE - 1) / Constants.LIST_PAGE_SIZE;
+        if (page < 1 || page > pageCount) {
+            throw new BuddyException("Page " + page + " does not exist. Your list has " + pageCount
+                    + (pageCount == 1 ? " page." : " pages."));
+        }
+        List<Task> matches = taskList.getTasksMatching(filters, tag, (page - 1) * Constants.LIST_PAGE_SIZE,
+                Constants.LIST_PAGE_SIZE);
+        boolean hasMore = page < pageCount;
+        String[] lines = new String[matches.size() + (hasMore ? 2 : 1)];
+        lines[0] = "Found " + matchCount + (matchCount == 1 ? " matching task" : " matching tasks")
+                + (pageCount == 1 ? ":" : " (page " + page + " of " + pageCount + "):");
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < matches.size(); i++) {
+            Task task = matches.get(i);
+            // Number each match by its place in the whole list, so it can be used with mark or delete
+            line.setLength(0);
+            line.append(taskList.indexOfId(task.getId()) + 1).append('.').append(task)
+                    .append(' ').append(Constants.TASK_ID_PREFIX).append(task.getId());
+            lines[i + 1] = line.toString();
+        }
+        if (hasMore) {
+            lines[lines.length - 1] = "Type list " + String.join(" ", describeFilters(filters, tag))
+                    + " page " + (page + 1) + " to see more.";
+        }
+        ui.printBox(lines);
+    }
+
+    private static List<String> describeFilters(Set<TaskFilter> filters, String tag) {
+        List<String> words = new ArrayList<>();
+        for (TaskFilter filter : filters) {
+            words.add(filter.name().toLowerCase());
+        }
+        if (tag != null) {
+            words.add("#" + tag);
+        }
+        return words;
+    }
+
+    private void printRange(List<Task> tasks, String argument, Ui ui) throws BuddyException {
+        int delimiterIndex = argument.indexOf(RANGE_DELIMITER);
+        if (delimiterIndex == -1) {
+            throw new BuddyException(USAGE_MESSAGE);
+        }
+        int start = parseNumber(argument.substring(0, delimiterIndex));
+        int end = parseNumber(argument.substring(delimiterIndex + RANGE_DELIMITER.length()));
+        if (start < 1 || start > tasks.size() || end < start) {
+            throw new BuddyException("Task number does not exist.");
+        }
+        // A range shows at most one page, like every other form of list, however many numbers it spans
+        int last = Math.min(end, tasks.size());
+        int to = Math.min(last, start - 1 + Constants.LIST_PAGE_SIZE);
+        printTasks(tasks, start - 1, to, "Here are tasks " + start + "-" + to + " of " + tasks.size()
+                + " in your list:", to < last ? "Type list " + (to + 1) + "-" + last + " to see more." : null, ui);
+    }
+
+    /**
+     * Prints the tasks between two 0-based positions, numbered by their place in the whole list.
+     */
+    private void printTasks(List<Task> tasks, int from, int to, String header, String footer, Ui ui) {
+        String[] lines = new String[to - from + (footer == null ? 1 : 2)];
+        lines[0] = header;
+        StringBuilder line = new StringBuilder();
+        int row = 1;
+        for (Task task : tasks.subList(from, to)) {
+            line.setLength(0);
+            line.append(from + row).append('.').append(task)
+                    .append(' ').append(Constants.TASK_ID_PREFIX).append(task.getId());
+            lines[row++] = line.toString();
+        }
+        if (footer != null) {
+            lines[row] = footer;
         }
         ui.printBox(lines);
     }
+
+    private static int parseNumber(String text) throws BuddyException {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw new BuddyException(USAGE_MESSAGE);
+        }
+    }
 }
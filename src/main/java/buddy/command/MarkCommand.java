@@ -4,6 +4,7 @@ import buddy.BuddyException;
 import buddy.CommandKeyword;
 import buddy.Storage;
 import buddy.Ui;
+import buddy.task.TaskJournal;
 import buddy.task.TaskList;
 
 /**
@@ -33,8 +34,10 @@ public class MarkCommand extends Command {
             taskList,
             ui,
             storage,
-            buddy.task.Task::markAsDone,
-            "Awesome! You crushed this task: "
+            TaskList::markTasks,
+            TaskJournal::marked,
+            "Awesome! You crushed this task: ",
+            "Awesome! You crushed these %d tasks:"
         );
     }
 }
@@ -0,0 +1,30 @@
+package buddy.command;
+
+import buddy.BuddyException;
+import buddy.Storage;
+import buddy.Ui;
+import buddy.task.TaskList;
+
+/**
+ * Command to apply the latest undone change again.
+ */
+public class RedoCommand extends Command {
+    /**
+     * Executes the redo command to apply the latest undone change again.
+     * @param taskList The list of tasks to redo a change to.
+     * @param ui The user interface for displaying messages.
+     * @param storage The storage handler for saving tasks.
+     * @throws BuddyException If there is no change to redo.
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws BuddyException {
+        reportHistoryChanges(
+            taskList.redo(),
+            "Nothing to redo.",
+            "Redone! I applied this change again:",
+            taskList,
+            ui,
+            storage
+        );
+    }
+}
@@ -0,0 +1,60 @@
+package buddy.command;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import buddy.BuddyException;
+import buddy.Storage;
+import buddy.Ui;
+import buddy.task.QueryCacheStats;
+import buddy.task.TaskList;
+import buddy.task.TaskStats;
+
+/**
+ * Command to summarise the task list.
+ */
+public class StatsCommand extends Command {
+    /**
+     * Executes the stats command to display task totals, overdue deadlines, this week's events, tag counts
+     * and how well find results are being reused.
+     * Weeks run from Monday to Sunday.
+     * @param taskList The list of tasks to summarise.
+     * @param ui The user interface for displaying messages.
+     * @param storage The storage handler (not used in this command).
+     * @throws BuddyException Not thrown in this command.
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws BuddyException {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDateTime weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+        LocalDateTime weekEnd = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)).atTime(LocalTime.MAX);
+        TaskStats stats = taskList.getStats(now, weekStart, weekEnd);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("Here's how your list is looking:");
+        lines.add("  Total: " + stats.totalCount() + " (" + stats.todoCount() + " todos, "
+                + stats.deadlineCount() + " deadlines, " + stats.eventCount() + " events)");
+        lines.add("  Done: " + stats.doneCount() + ", not done yet: " + (stats.totalCount() - stats.doneCount()));
+        lines.add("  Overdue deadlines: " + stats.overdueDeadlineCount());
+        lines.add("  Events this week: " + stats.eventsThisWeekCount());
+        if (!stats.tagCounts().isEmpty()) {
+            StringJoiner tags = new StringJoiner(", ", "  Tags: ", "");
+            for (Map.Entry<String, Integer> entry : stats.tagCounts().entrySet()) {
+                tags.add("#" + entry.getKey() + " " + entry.getValue());
+            }
+            lines.add(tags.toString());
+        }
+        QueryCacheStats cacheStats = taskList.getQueryCacheStats();
+        lines.add("  Find cache: " + cacheStats.hits() + " hits, " + cacheStats.misses() + " misses, "
+                + cacheStats.evictions() + " evictions, " + cacheStats.invalidations() + " invalidations");
+        ui.printBox(lines.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,30 @@
+package buddy.command;
+
+import buddy.BuddyException;
+import buddy.Storage;
+import buddy.Ui;
+import buddy.task.TaskList;
+
+/**
+ * Command to revert the latest change to the task list.
+ */
+public class UndoCommand extends Command {
+    /**
+     * Executes the undo command to revert the latest change to the task list.
+     * @param taskList The list of tasks to undo a change to.
+     * @param ui The user interface for displaying messages.
+     * @param storage The storage handler for saving tasks.
+     * @throws BuddyException If there is no change to undo.
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws BuddyException {
+        reportHistoryChanges(
+            taskList.undo(),
+            "Nothing to undo.",
+            "Undone! I reverted this change:",
+            taskList,
+            ui,
+            storage
+        );
+    }
+}
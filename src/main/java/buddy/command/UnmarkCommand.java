@@ -4,6 +4,7 @@ import buddy.BuddyException;
 import buddy.CommandKeyword;
 import buddy.Storage;
 import buddy.Ui;
+import buddy.task.TaskJournal;
 import buddy.task.TaskList;
 
 /**
@@ -33,8 +34,10 @@ public class UnmarkCommand extends Command {
             taskList,
             ui,
             storage,
-            buddy.task.Task::markAsUndone,
-            "OK, I've marked this task as not done yet:"
+            TaskList::unmarkTasks,
+            TaskJournal::unmarked,
+            "OK, I've marked this task as not done yet:",
+            "OK, I've marked these %d tasks as not done yet:"
         );
     }
 }
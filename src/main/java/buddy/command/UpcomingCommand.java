@@ -0,0 +1,70 @@
+package buddy.command;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import buddy.BuddyException;
+import buddy.CommandKeyword;
+import buddy.Constants;
+import buddy.Storage;
+import buddy.Ui;
+import buddy.task.Task;
+import buddy.task.TaskList;
+
+/**
+ * Command to show the undone deadlines and events that are due next.
+ */
+public class UpcomingCommand extends Command {
+    private static final int DEFAULT_COUNT = 10;
+
+    private final String userInput;
+
+    /**
+     * Constructs an UpcomingCommand with the given user input.
+     * @param userInput The full user input string for the upcoming command.
+     */
+    public UpcomingCommand(String userInput) {
+        this.userInput = userInput;
+    }
+
+    /**
+     * Executes the upcoming command to display the next undone deadlines and events, soonest first.
+     * @param taskList The list of tasks to look through.
+     * @param ui The user interface for displaying messages.
+     * @param storage The storage handler (not used in this command).
+     * @throws BuddyException If the number of tasks to show is invalid.
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage) throws BuddyException {
+        int count = parseCount();
+        List<Task> upcomingTasks = taskList.getUpcomingTasks(LocalDateTime.now(), count);
+
+        if (upcomingTasks.isEmpty()) {
+            ui.printBox("Nothing coming up! All your deadlines and events are done or in the past.");
+            return;
+        }
+        String[] lines = new String[upcomingTasks.size() + 1];
+        lines[0] = "Here's what's coming up next:";
+        for (int i = 0; i < upcomingTasks.size(); i++) {
+            Task task = upcomingTasks.get(i);
+            lines[i + 1] = (i + 1) + "." + task + " " + Constants.TASK_ID_PREFIX + task.getId();
+        }
+        ui.printBox(lines);
+    }
+
+    private int parseCount() throws BuddyException {
+        String argument = userInput.trim().substring(CommandKeyword.UPCOMING.length()).trim();
+        if (argument.isEmpty()) {
+            return DEFAULT_COUNT;
+        }
+        try {
+            int count = Integer.parseInt(argument);
+            if (count > 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the error below
+        }
+        throw new BuddyException("Please provide a positive number of tasks to show, e.g. upcoming 5.");
+    }
+}
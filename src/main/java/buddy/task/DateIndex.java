@@ -0,0 +1,237 @@
+package buddy.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * DateIndex is an interval tree over the dates of deadlines and events.
+ * Each event is stored as the interval from its start to its end time, and each deadline as a single point.
+ * The tree is a treap ordered by start time, where every node also records the latest end time below it,
+ * so an overlap query can skip any subtree that ends before the range it is asked about.
+ * Nodes also count the tasks below them, so the tasks starting by a given time are counted along one path.
+ * Together with a rank of end times, built the first time a count needs it, that counts the tasks overlapping
+ * a range without visiting them.
+ */
+class DateIndex {
+    private final Random random = new Random();
+    private Node root;
+    private DateRank ends;
+
+    /**
+     * Records a task's dates, if it has any.
+     */
+    void add(Task task) {
+        if (task instanceof Deadline deadline) {
+            root = insert(root, new Node(deadline.getDateTime(), deadline.getDateTime(), task, random.nextInt()));
+            if (ends != null) {
+                ends.add(deadline.getDateTime(), task.getId());
+            }
+        } else if (task instanceof Event event) {
+            root = insert(root, new Node(event.getStartTime(), event.getEndTime(), task, random.nextInt()));
+            if (ends != null) {
+                ends.add(event.getEndTime(), task.getId());
+            }
+        }
+    }
+
+    /**
+     * Removes a task's dates, if it has any.
+     */
+    void remove(Task task) {
+        if (task instanceof Deadline deadline) {
+            root = delete(root, deadline.getDateTime(), task);
+            if (ends != null) {
+                ends.remove(deadline.getDateTime(), task.getId());
+            }
+        } else if (task instanceof Event event) {
+            root = delete(root, event.getStartTime(), task);
+            if (ends != null) {
+                ends.remove(event.getEndTime(), task.getId());
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks whose dates overlap the range from start to end, both inclusive, in list order.
+     */
+    List<Task> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<Task> matches = new ArrayList<>();
+        collectOverlapping(root, start, end, matches);
+        matches.sort(Comparator.comparingInt(Task::getId));
+        return matches;
+    }
+
+    /**
+     * Returns whether the rank of end times has been built.
+     */
+    boolean hasEndRank() {
+        return ends != null;
+    }
+
+    /**
+     * Builds the rank of end times from the tasks currently indexed.
+     */
+    void buildEndRank() {
+        ends = new DateRank();
+        rankEnds(root);
+    }
+
+    /**
+     * Returns the number of tasks whose dates overlap the range from start to end, both inclusive,
+     * in logarithmic time. Every task that ends before the range also starts before its end, so these are
+     * the tasks starting by the end less those ending before the start. The end rank must have been built.
+     */
+    int countOverlapping(LocalDateTime start, LocalDateTime end) {
+        assert hasEndRank() : "End rank should be built before counting overlaps";
+        return countStartingBy(end) - ends.countBefore(start);
+    }
+
+    private void rankEnds(Node node) {
+        if (node != null) {
+            rankEnds(node.left);
+            ends.add(node.end, node.task.getId());
+            rankEnds(node.right);
+        }
+    }
+
+    private int countStartingBy(LocalDateTime end) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.start.isAfter(end)) {
+                node = node.left;
+            } else {
+                count += sizeOf(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void collectOverlapping(Node node, LocalDateTime start, LocalDateTime end, List<Task> matches) {
+        if (node == null || node.maxEnd.isBefore(start)) {
+            return;
+        }
+        collectOverlapping(node.left, start, end, matches);
+        if (node.start.isAfter(end)) {
+            return; // Everything to the right starts even later
+        }
+        if (!node.end.isBefore(start)) {
+            matches.add(node.task);
+        }
+        collectOverlapping(node.right, start, end, matches);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.task, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, LocalDateTime start, Task task) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, task, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, start, task);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, start, task);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        return pivot;
+    }
+
+    /**
+     * Orders nodes by start time, breaking ties by list order so every task has a unique position.
+     */
+    private static int compare(LocalDateTime start, Task task, Node node) {
+        int comparison = start.compareTo(node.start);
+        return comparison != 0 ? comparison : Integer.compare(task.getId(), node.task.getId());
+    }
+
+    private static final class Node {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Task task;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(LocalDateTime start, LocalDateTime end, Task task, int priority) {
+            this.start = start;
+            this.end = end;
+            this.task = task;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            size = sizeOf(left) + 1 + sizeOf(right);
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package buddy.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+/**
+ * DateRank counts how many of a set of task dates fall before a given time.
+ * The dates are kept in a treap where every node records the size of its subtree, so a count only
+ * walks one path from the root instead of visiting every earlier date. Nodes hold each date as primitive
+ * seconds and nanoseconds, so comparing against a node does not follow references to date and time objects.
+ */
+class DateRank {
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * Records a task's date. Each task may be recorded once.
+     */
+    void add(LocalDateTime time, int id) {
+        root = insert(root, new Node(secondsOf(time), time.getNano(), id, random.nextInt()));
+    }
+
+    /**
+     * Removes a task's date, if it is recorded.
+     */
+    void remove(LocalDateTime time, int id) {
+        root = delete(root, secondsOf(time), time.getNano(), id);
+    }
+
+    /**
+     * Returns the number of recorded dates strictly before the given time.
+     */
+    int countBefore(LocalDateTime time) {
+        long seconds = secondsOf(time);
+        int nanos = time.getNano();
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compareTime(node.seconds, node.nanos, seconds, nanos) < 0) {
+                count += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of recorded dates at or before the given time.
+     */
+    int countUpTo(LocalDateTime time) {
+        long seconds = secondsOf(time);
+        int nanos = time.getNano();
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compareTime(node.seconds, node.nanos, seconds, nanos) <= 0) {
+                count += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.seconds, added.nanos, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, long seconds, int nanos, int id) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(seconds, nanos, id, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, seconds, nanos, id);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, seconds, nanos, id);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        return pivot;
+    }
+
+    /**
+     * Orders nodes by time, breaking ties by task ID so every date has a unique position.
+     */
+    private static int compare(long seconds, int nanos, int id, Node node) {
+        int comparison = compareTime(seconds, nanos, node.seconds, node.nanos);
+        return comparison != 0 ? comparison : Integer.compare(id, node.id);
+    }
+
+    private static int compareTime(long seconds, int nanos, long otherSeconds, int otherNanos) {
+        int comparison = Long.compare(seconds, otherSeconds);
+        return comparison != 0 ? comparison : Integer.compare(nanos, otherNanos);
+    }
+
+    private static long secondsOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final long seconds;
+        private final int nanos;
+        private final int id;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long seconds, int nanos, int id, int priority) {
+            this.seconds = seconds;
+            this.nanos = nanos;
+            this.id = id;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = sizeOf(left) + 1 + sizeOf(right);
+        }
+    }
+}
@@ -2,16 +2,41 @@ package buddy.task;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * Common date/time parsing and formatting utilities.
+ * The fixed-width file and find formats are encoded and decoded digit by digit;
+ * the formatters below are only used for input or values outside that fixed shape.
  */
 public final class DateTimeUtil {
     public static final DateTimeFormatter FILE_DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
     public static final DateTimeFormatter DISPLAY_DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mm a");
     public static final DateTimeFormatter FIND_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private static final String INVALID_FILE_DATE_TIME_MESSAGE =
+            "Invalid date/time format. Use yyyy-MM-dd HHmm (e.g., 2019-12-02 1800)";
+    private static final int FIND_DATE_LENGTH = 10;
+    private static final int FILE_DATE_TIME_LENGTH = 15;
+    private static final int MIN_FAST_YEAR = 1;
+    private static final int MAX_FAST_YEAR = 9999;
+    private static final String[] DISPLAY_MONTHS = new String[12];
+    private static final String DISPLAY_AM;
+    private static final String DISPLAY_PM;
+
+    static {
+        DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("MMM", DISPLAY_DATE_TIME_FORMAT.getLocale());
+        for (Month month : Month.values()) {
+            DISPLAY_MONTHS[month.ordinal()] = monthFormat.format(LocalDate.of(2000, month, 1));
+        }
+        DateTimeFormatter amPmFormat = DateTimeFormatter.ofPattern("a", DISPLAY_DATE_TIME_FORMAT.getLocale());
+        DISPLAY_AM = amPmFormat.format(LocalDateTime.of(2000, 1, 1, 0, 0));
+        DISPLAY_PM = amPmFormat.format(LocalDateTime.of(2000, 1, 1, 12, 0));
+    }
+
     private DateTimeUtil() {
     }
 
@@ -22,11 +47,43 @@ public final class DateTimeUtil {
      * @return the parsed LocalDateTime object
      */
     public static LocalDateTime parseFileDateTime(String dateTimeStr) {
+        LocalDateTime dateTime = tryParseFileDateTime(dateTimeStr);
+        if (dateTime == null) {
+            throw new IllegalArgumentException(INVALID_FILE_DATE_TIME_MESSAGE);
+        }
+        return dateTime;
+    }
+
+    /**
+     * Parses a date/time string from the file format, reporting invalid input without throwing.
+     * @param dateTimeStr the date/time string in file format, may be null
+     * @return the parsed LocalDateTime object, or null if the string is not a valid date/time
+     */
+    public static LocalDateTime tryParseFileDateTime(String dateTimeStr) {
+        if (dateTimeStr == null) {
+            return null;
+        }
+        if (dateTimeStr.length() == FILE_DATE_TIME_LENGTH && hasDateShape(dateTimeStr)
+                && dateTimeStr.charAt(10) == ' ' && areDigits(dateTimeStr, 11, 15)) {
+            int year = parseDigits(dateTimeStr, 0, 4);
+            int month = parseDigits(dateTimeStr, 5, 7);
+            int day = parseDigits(dateTimeStr, 8, 10);
+            int hour = parseDigits(dateTimeStr, 11, 13);
+            int minute = parseDigits(dateTimeStr, 13, 15);
+            if (isValidDate(year, month, day) && hour <= 23 && minute <= 59) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+            if (!(isValidDate(year, month, day) || needsResolving(year, month, day)) || hour > 24 || minute > 59) {
+                return null;
+            }
+        } else if (!mayBeLongYear(dateTimeStr)) {
+            return null;
+        }
+        // Unusual input such as clamped days or 24:00 is left to the formatter's resolver
         try {
             return LocalDateTime.parse(dateTimeStr, FILE_DATE_TIME_FORMAT);
-        } catch (Exception e) {
-            throw new IllegalArgumentException(
-                    "Invalid date/time format. Use yyyy-MM-dd HHmm (e.g., 2019-12-02 1800)");
+        } catch (DateTimeParseException e) {
+            return null;
         }
     }
 
@@ -36,7 +93,30 @@ public final class DateTimeUtil {
      * @return the formatted date/time string
      */
     public static String formatFileDateTime(LocalDateTime dateTime) {
-        return dateTime.format(FILE_DATE_TIME_FORMAT);
+        StringBuilder sb = new StringBuilder(FILE_DATE_TIME_LENGTH);
+        appendFileDateTime(sb, dateTime);
+        return sb.toString();
+    }
+
+    /**
+     * Appends a LocalDateTime object in the file date/time string format.
+     * @param sb the builder to append to
+     * @param dateTime the LocalDateTime object to format
+     */
+    public static void appendFileDateTime(StringBuilder sb, LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < MIN_FAST_YEAR || year > MAX_FAST_YEAR) {
+            sb.append(dateTime.format(FILE_DATE_TIME_FORMAT));
+            return;
+        }
+        appendDigits(sb, year, 4);
+        sb.append('-');
+        appendDigits(sb, dateTime.getMonthValue(), 2);
+        sb.append('-');
+        appendDigits(sb, dateTime.getDayOfMonth(), 2);
+        sb.append(' ');
+        appendDigits(sb, dateTime.getHour(), 2);
+        appendDigits(sb, dateTime.getMinute(), 2);
     }
 
     /**
@@ -45,7 +125,21 @@ public final class DateTimeUtil {
      * @return the formatted display date/time string
      */
     public static String formatDisplayDateTime(LocalDateTime dateTime) {
-        return dateTime.format(DISPLAY_DATE_TIME_FORMAT);
+        int year = dateTime.getYear();
+        if (year < MIN_FAST_YEAR || year > MAX_FAST_YEAR) {
+            return dateTime.format(DISPLAY_DATE_TIME_FORMAT);
+        }
+        int hour = dateTime.getHour();
+        int clockHour = hour % 12 == 0 ? 12 : hour % 12;
+        StringBuilder sb = new StringBuilder(24);
+        sb.append(DISPLAY_MONTHS[dateTime.getMonthValue() - 1]).append(' ');
+        appendDigits(sb, dateTime.getDayOfMonth(), 2);
+        sb.append(' ');
+        appendDigits(sb, year, 4);
+        sb.append(", ").append(clockHour).append(':');
+        appendDigits(sb, dateTime.getMinute(), 2);
+        sb.append(' ').append(hour < 12 ? DISPLAY_AM : DISPLAY_PM);
+        return sb.toString();
     }
 
     /**
@@ -54,6 +148,98 @@ public final class DateTimeUtil {
      * @return the parsed LocalDate object
      */
     public static LocalDate parseFindDate(String dateStr) {
-        return LocalDate.parse(dateStr, FIND_DATE_FORMAT);
+        LocalDate date = tryParseFindDate(dateStr);
+        if (date == null) {
+            // Let the formatter describe what is wrong with the input
+            return LocalDate.parse(dateStr, FIND_DATE_FORMAT);
+        }
+        return date;
+    }
+
+    /**
+     * Parses a date string for the find command, reporting invalid input without throwing.
+     * @param dateStr the date string in find command format, may be null
+     * @return the parsed LocalDate object, or null if the string is not a valid date
+     */
+    public static LocalDate tryParseFindDate(String dateStr) {
+        if (dateStr == null) {
+            return null;
+        }
+        if (dateStr.length() == FIND_DATE_LENGTH && hasDateShape(dateStr)) {
+            int year = parseDigits(dateStr, 0, 4);
+            int month = parseDigits(dateStr, 5, 7);
+            int day = parseDigits(dateStr, 8, 10);
+            if (isValidDate(year, month, day)) {
+                return LocalDate.of(year, month, day);
+            }
+            if (!needsResolving(year, month, day)) {
+                return null;
+            }
+        } else if (!mayBeLongYear(dateStr)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(dateStr, FIND_DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasDateShape(String str) {
+        return areDigits(str, 0, 4) && str.charAt(4) == '-' && areDigits(str, 5, 7)
+                && str.charAt(7) == '-' && areDigits(str, 8, 10);
+    }
+
+    private static boolean isValidDate(int year, int month, int day) {
+        return year >= MIN_FAST_YEAR && month >= 1 && month <= 12
+                && day >= 1 && day <= Month.of(month).length(Year.isLeap(year));
+    }
+
+    /**
+     * Returns whether a well-shaped but invalid date might still be accepted by the formatter,
+     * which resolves days 29 to 31 past the end of a month to the month's last day.
+     */
+    private static boolean needsResolving(int year, int month, int day) {
+        return year >= MIN_FAST_YEAR && month >= 1 && month <= 12 && day >= 29 && day <= 31;
+    }
+
+    /**
+     * Returns whether the string could hold a year wider than four digits, which only the formatter parses.
+     */
+    private static boolean mayBeLongYear(String str) {
+        if (str.isEmpty()) {
+            return false;
+        }
+        char first = str.charAt(0);
+        return first == '+' || (first >= '0' && first <= '9' && str.length() > FIND_DATE_LENGTH
+                && str.indexOf('-') > 4);
+    }
+
+    private static boolean areDigits(String str, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseDigits(String str, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (str.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static void appendDigits(StringBuilder sb, int value, int width) {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            sb.append((char) ('0' + value / divisor % 10));
+        }
     }
 }
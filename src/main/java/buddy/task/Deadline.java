@@ -20,6 +20,18 @@ public class Deadline extends Task {
         this.by = DateTimeUtil.parseFileDateTime(by);
     }
 
+    /**
+     * Constructs a Deadline task with the given description, parsed due date, and tag.
+     *
+     * @param description the description of the deadline task
+     * @param by the due date of the deadline task
+     * @param tag the optional tag for the deadline task
+     */
+    public Deadline(String description, LocalDateTime by, String tag) {
+        super(description, tag);
+        this.by = by;
+    }
+
     /**
      * Gets the due date and time of the deadline task.
      *
@@ -30,10 +42,12 @@ public class Deadline extends Task {
     }
 
     @Override
-    public String toFileFormat() {
-        return TaskFormat.TYPE_DEADLINE + TaskFormat.DELIMITER + super.toFileFormat()
-                + TaskFormat.DELIMITER + DateTimeUtil.formatFileDateTime(by)
-                + formatTagForFile();
+    protected void appendFields(StringBuilder sb) {
+        sb.append(TaskFormat.TYPE_DEADLINE).append(TaskFormat.DELIMITER);
+        appendStatusAndDescription(sb);
+        sb.append(TaskFormat.DELIMITER);
+        DateTimeUtil.appendFileDateTime(sb, by);
+        appendTagForFile(sb);
     }
 
     @Override
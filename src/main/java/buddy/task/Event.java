@@ -23,6 +23,20 @@ public class Event extends Task {
         this.to = DateTimeUtil.parseFileDateTime(to);
     }
 
+    /**
+     * Constructs an Event task with the given description, parsed start and end times, and tag.
+     *
+     * @param description the description of the event task
+     * @param from the start time of the event
+     * @param to the end time of the event
+     * @param tag the optional tag for the event task
+     */
+    public Event(String description, LocalDateTime from, LocalDateTime to, String tag) {
+        super(description, tag);
+        this.from = from;
+        this.to = to;
+    }
+
     /**
      * Gets the start time of the event task.
      *
@@ -42,11 +56,14 @@ public class Event extends Task {
     }
 
     @Override
-    public String toFileFormat() {
-        return TaskFormat.TYPE_EVENT + TaskFormat.DELIMITER + super.toFileFormat()
-            + TaskFormat.DELIMITER + DateTimeUtil.formatFileDateTime(from)
-            + TaskFormat.DELIMITER + DateTimeUtil.formatFileDateTime(to)
-            + formatTagForFile();
+    protected void appendFields(StringBuilder sb) {
+        sb.append(TaskFormat.TYPE_EVENT).append(TaskFormat.DELIMITER);
+        appendStatusAndDescription(sb);
+        sb.append(TaskFormat.DELIMITER);
+        DateTimeUtil.appendFileDateTime(sb, from);
+        sb.append(TaskFormat.DELIMITER);
+        DateTimeUtil.appendFileDateTime(sb, to);
+        appendTagForFile(sb);
     }
 
     @Override
@@ -0,0 +1,68 @@
+package buddy.task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * FileFormatLines is a read-only view of a task list snapshot as task file lines.
+ * Each line is formatted when it is read, and {@link #writeTo} serializes every task straight to a writer
+ * without building a string per line.
+ */
+public final class FileFormatLines extends AbstractList<String> {
+    private final List<Task> tasks;
+
+    FileFormatLines(List<Task> tasks) {
+        this.tasks = tasks;
+    }
+
+    @Override
+    public String get(int index) {
+        return tasks.get(index).toFileFormat();
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        Iterator<Task> taskIterator = tasks.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return taskIterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return taskIterator.next().toFileFormat();
+            }
+        };
+    }
+
+    /**
+     * Writes every line, each followed by the line separator, reusing one buffer for all of them.
+     *
+     * @param writer the writer to write the lines to
+     * @param lineSeparator the separator to end each line with
+     * @throws IOException if there's an error writing
+     */
+    public void writeTo(Writer writer, String lineSeparator) throws IOException {
+        StringBuilder line = new StringBuilder();
+        char[] chars = new char[256];
+        for (Task task : tasks) {
+            line.setLength(0);
+            task.appendFileFormat(line);
+            line.append(lineSeparator);
+            if (line.length() > chars.length) {
+                chars = new char[line.length() * 2];
+            }
+            line.getChars(0, line.length(), chars, 0);
+            writer.write(chars, 0, line.length());
+        }
+    }
+}
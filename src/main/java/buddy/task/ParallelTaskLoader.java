@@ -0,0 +1,103 @@
+package buddy.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+import buddy.BuddyException;
+
+/**
+ * ParallelTaskLoader parses task file lines in chunks on a fork-join pool,
+ * then adds the parsed tasks to a TaskList in their original file order.
+ */
+public class ParallelTaskLoader implements Consumer<String> {
+    private static final int CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final List<ForkJoinTask<ParsedChunk>> chunks = new ArrayList<>();
+    private List<String> currentChunk = new ArrayList<>(CHUNK_SIZE);
+    private int lineCount;
+
+    /**
+     * Creates a loader that parses on the common fork-join pool.
+     */
+    public ParallelTaskLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a loader that parses on the given fork-join pool.
+     *
+     * @param pool the pool to parse chunks on
+     */
+    public ParallelTaskLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Queues a line from the task file, handing it to the pool once its chunk is full.
+     *
+     * @param line the line from the file
+     */
+    @Override
+    public void accept(String line) {
+        currentChunk.add(line);
+        lineCount++;
+        if (currentChunk.size() == CHUNK_SIZE) {
+            submitChunk();
+        }
+    }
+
+    /**
+     * Waits for every queued line to be parsed and adds the tasks to the list in file order.
+     * Corrupted lines are reported in file order too, so warnings do not depend on scheduling.
+     *
+     * @param taskList the task list to add the parsed tasks to
+     * @param corruptedLineHandler receives each line that could not be parsed, with its 1-based line number
+     */
+    public void finish(TaskList taskList, ObjIntConsumer<String> corruptedLineHandler) {
+        submitChunk();
+        for (ForkJoinTask<ParsedChunk> chunk : chunks) {
+            ParsedChunk parsed = chunk.join();
+            for (Task task : parsed.tasks()) {
+                taskList.addTask(task);
+            }
+            for (int i = 0; i < parsed.corruptedLines().size(); i++) {
+                corruptedLineHandler.accept(parsed.corruptedLines().get(i), parsed.corruptedLineNumbers().get(i));
+            }
+        }
+        chunks.clear();
+    }
+
+    private void submitChunk() {
+        if (currentChunk.isEmpty()) {
+            return;
+        }
+        List<String> lines = currentChunk;
+        int firstLineNumber = lineCount - lines.size() + 1;
+        chunks.add(pool.submit(() -> parseChunk(lines, firstLineNumber)));
+        currentChunk = new ArrayList<>(CHUNK_SIZE);
+    }
+
+    private static ParsedChunk parseChunk(List<String> lines, int firstLineNumber) {
+        List<Task> tasks = new ArrayList<>(lines.size());
+        List<String> corruptedLines = new ArrayList<>();
+        List<Integer> corruptedLineNumbers = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            try {
+                tasks.add(TaskParser.parseFromFile(line));
+            } catch (BuddyException e) {
+                corruptedLines.add(line);
+                corruptedLineNumbers.add(firstLineNumber + i);
+            }
+        }
+        return new ParsedChunk(tasks, corruptedLines, corruptedLineNumbers);
+    }
+
+    private record ParsedChunk(List<Task> tasks, List<String> corruptedLines, List<Integer> corruptedLineNumbers) {
+    }
+}
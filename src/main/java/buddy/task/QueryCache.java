@@ -0,0 +1,149 @@
+package buddy.task;
+
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * QueryCache keeps the results of the most recently run queries, dropping the least recently used when full.
+ * A change to a task can only alter the results of the queries the task matched before or after the change,
+ * so exactly those are invalidated and the rest stay cached. Queries are keyed by their criteria with the tag
+ * in lower case, as tags match regardless of case, and grouped by that tag so a change only checks the queries
+ * for the task's tag and those without one.
+ *
+ * <p>Queries with a bound inside a day, such as due:overdue ending just before now, are not cached:
+ * the bound moves on every run, so such a result could never be looked up again and would only evict others.
+ *
+ * <p>Queries run under a shared read lock, so every method synchronizes on the cache.
+ */
+class QueryCache {
+    private final int capacity;
+    private final LinkedHashMap<TaskQuery, List<Task>> results;
+    private final Map<String, Set<TaskQuery>> queriesByTag = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    QueryCache(int capacity) {
+        assert capacity > 0 : "Capacity should be positive";
+        this.capacity = capacity;
+        this.results = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TaskQuery, List<Task>> eldest) {
+                if (size() > QueryCache.this.capacity) {
+                    forget(eldest.getKey());
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached results of a query and counts a hit, or returns null and counts a miss.
+     */
+    synchronized List<Task> get(TaskQuery query) {
+        List<Task> cached = results.get(keyOf(query));
+        if (cached == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return cached;
+    }
+
+    /**
+     * Caches the results of a query, unless its time range depends on when it was run.
+     */
+    synchronized void put(TaskQuery query, List<Task> matches) {
+        if (!isCacheable(query)) {
+            return;
+        }
+        TaskQuery key = keyOf(query);
+        if (results.put(key, matches) == null) {
+            queriesByTag.computeIfAbsent(key.tag(), tag -> new HashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Drops the results of every query the task matches. Call it before and after changing a task.
+     */
+    synchronized void invalidate(Task task) {
+        String tag = task.getTag();
+        if (tag != null) {
+            invalidate(task, tag.toLowerCase());
+        }
+        invalidate(task, null);
+    }
+
+    private void invalidate(Task task, String tag) {
+        Set<TaskQuery> queries = queriesByTag.get(tag);
+        if (queries == null) {
+            return;
+        }
+        Iterator<TaskQuery> iterator = queries.iterator();
+        while (iterator.hasNext()) {
+            TaskQuery query = iterator.next();
+            if (query.matches(task)) {
+                iterator.remove();
+                results.remove(query);
+                invalidations++;
+            }
+        }
+        if (queries.isEmpty()) {
+            queriesByTag.remove(tag);
+        }
+    }
+
+    /**
+     * Drops every cached result, for changes to more tasks than it is worth checking one at a time.
+     */
+    synchronized void invalidateAll() {
+        invalidations += results.size();
+        results.clear();
+        queriesByTag.clear();
+    }
+
+    /**
+     * Returns whether checking this many changed tasks one at a time costs more than dropping every result.
+     */
+    boolean isCheaperToClear(int changedTaskCount) {
+        return changedTaskCount > capacity;
+    }
+
+    synchronized QueryCacheStats stats() {
+        return new QueryCacheStats(hits, misses, evictions, invalidations, results.size());
+    }
+
+    private void forget(TaskQuery key) {
+        Set<TaskQuery> queries = queriesByTag.get(key.tag());
+        queries.remove(key);
+        if (queries.isEmpty()) {
+            queriesByTag.remove(key.tag());
+        }
+    }
+
+    /**
+     * Returns whether the query's time range covers whole days, which every range does but one ending at now.
+     */
+    private static boolean isCacheable(TaskQuery query) {
+        boolean isFromWholeDay = query.from() == null || query.from().toLocalTime().equals(LocalTime.MIDNIGHT);
+        boolean isToWholeDay = query.to() == null || query.to().toLocalTime().equals(LocalTime.MAX);
+        return isFromWholeDay && isToWholeDay;
+    }
+
+    private static TaskQuery keyOf(TaskQuery query) {
+        if (query.tag() == null || query.tag().equals(query.tag().toLowerCase())) {
+            return query;
+        }
+        return new TaskQuery(query.tag().toLowerCase(), query.filters(), query.keywords(), query.from(),
+                query.to());
+    }
+}
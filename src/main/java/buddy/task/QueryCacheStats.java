@@ -0,0 +1,13 @@
+package buddy.task;
+
+/**
+ * Counters for the cache of find results, as reported by the stats command.
+ *
+ * @param hits the number of queries answered from the cache
+ * @param misses the number of queries that had to be run
+ * @param evictions the number of results dropped to make room for newer ones
+ * @param invalidations the number of results dropped because a change to a task could alter them
+ * @param size the number of results currently cached
+ */
+public record QueryCacheStats(long hits, long misses, long evictions, long invalidations, int size) {
+}
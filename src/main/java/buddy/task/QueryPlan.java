@@ -0,0 +1,46 @@
+package buddy.task;
+
+import java.util.List;
+
+/**
+ * How a TaskList runs a {@link TaskQuery}: the access paths that could supply candidate tasks, cheapest first,
+ * and the checks left for every candidate. The first path is the one used.
+ *
+ * @param accessPaths the usable access paths, ordered by their estimated number of candidates
+ * @param residualChecks the criteria the chosen path does not already guarantee
+ */
+public record QueryPlan(List<AccessPath> accessPaths, List<String> residualChecks) {
+
+    /**
+     * Returns the access path the query runs from.
+     *
+     * @return the cheapest access path
+     */
+    public AccessPath chosenPath() {
+        return accessPaths.get(0);
+    }
+
+    /**
+     * The kinds of index a query can start from.
+     */
+    public enum Kind {
+        /** The status, type and tag bitmaps, or every task when the query has none of those. */
+        BITMAP,
+        /** The trigram text index, for one keyword. */
+        KEYWORD,
+        /** The interval tree of deadline and event dates. */
+        DATE_RANGE
+    }
+
+    /**
+     * One way to find candidate tasks.
+     *
+     * @param kind the index used
+     * @param keyword the keyword looked up, for a keyword path, or null
+     * @param description what the path looks up, as shown by explain
+     * @param estimatedTasks the estimated number of candidates; exact for bitmaps and dates,
+     *     an upper bound for keywords
+     */
+    public record AccessPath(Kind kind, String keyword, String description, int estimatedTasks) {
+    }
+}
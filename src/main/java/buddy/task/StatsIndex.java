@@ -0,0 +1,110 @@
+package buddy.task;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * StatsIndex keeps the counters behind {@link TaskStats} up to date as tasks change, so reading them never
+ * scans the list. Type and status totals are plain counters; the time-dependent figures are counted
+ * from {@link DateRank}s of undone deadline due times and event start and end times.
+ * The counters are kept from the start, but the date ranks are only built the first time they are needed,
+ * as ranking every date costs far more at start-up than counting.
+ */
+class StatsIndex {
+    private DateRank undoneDeadlines;
+    private DateRank eventStarts;
+    private DateRank eventEnds;
+    private int todoCount;
+    private int deadlineCount;
+    private int eventCount;
+    private int doneCount;
+
+    /**
+     * Counts a task in.
+     */
+    void add(Task task) {
+        if (task instanceof Deadline) {
+            deadlineCount++;
+        } else if (task instanceof Event) {
+            eventCount++;
+        } else {
+            todoCount++;
+        }
+        if (task.isDone()) {
+            doneCount++;
+        }
+        if (hasDateRanks()) {
+            rankDates(task);
+        }
+    }
+
+    /**
+     * Counts a task out. The task must have the done status it was last counted with.
+     */
+    void remove(Task task) {
+        if (task instanceof Deadline deadline) {
+            deadlineCount--;
+            if (hasDateRanks()) {
+                undoneDeadlines.remove(deadline.getDateTime(), task.getId());
+            }
+        } else if (task instanceof Event event) {
+            eventCount--;
+            if (hasDateRanks()) {
+                eventStarts.remove(event.getStartTime(), task.getId());
+                eventEnds.remove(event.getEndTime(), task.getId());
+            }
+        } else {
+            todoCount--;
+        }
+        if (task.isDone()) {
+            doneCount--;
+        }
+    }
+
+    /**
+     * Returns whether the date ranks have been built.
+     */
+    boolean hasDateRanks() {
+        return undoneDeadlines != null;
+    }
+
+    /**
+     * Builds the date ranks from the tasks currently counted in.
+     */
+    void buildDateRanks(Iterable<Task> tasks) {
+        undoneDeadlines = new DateRank();
+        eventStarts = new DateRank();
+        eventEnds = new DateRank();
+        for (Task task : tasks) {
+            rankDates(task);
+        }
+    }
+
+    private void rankDates(Task task) {
+        if (task instanceof Deadline deadline && !task.isDone()) {
+            undoneDeadlines.add(deadline.getDateTime(), task.getId());
+        } else if (task instanceof Event event) {
+            eventStarts.add(event.getStartTime(), task.getId());
+            eventEnds.add(event.getEndTime(), task.getId());
+        }
+    }
+
+    /**
+     * Returns the current figures, which needs the date ranks to have been built.
+     * Counters are read directly and each time-dependent figure is one or two logarithmic counts.
+     *
+     * @param now the time before which an undone deadline is overdue
+     * @param weekStart the start of the current week
+     * @param weekEnd the end of the current week
+     * @param tagCounts the number of tasks with each tag
+     */
+    TaskStats snapshot(LocalDateTime now, LocalDateTime weekStart, LocalDateTime weekEnd,
+            Map<String, Integer> tagCounts) {
+        assert hasDateRanks() : "Date ranks should be built before they are read";
+        // Every event ending before the week starts also starts before the week ends,
+        // so the events overlapping the week are those starting by its end minus those already over
+        int eventsThisWeek = eventStarts.countUpTo(weekEnd) - eventEnds.countBefore(weekStart);
+        return new TaskStats(todoCount, deadlineCount, eventCount, doneCount,
+                undoneDeadlines.countBefore(now), eventsThisWeek, tagCounts);
+    }
+}
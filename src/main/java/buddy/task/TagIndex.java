@@ -0,0 +1,115 @@
+package buddy.task;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TagIndex maps each tag, ignoring case, to a bitmap of the tasks that carry it.
+ * A task's bit is its ID - 1, so reading a tag's bits in order gives its tasks in list order,
+ * even when an undo puts one back, and the bitmap can be combined with the other filters in {@link TaskBitmaps}.
+ */
+class TagIndex {
+    private final Map<String, TagEntry> entries = new HashMap<>();
+
+    /**
+     * Records a task under its tag, if it has one.
+     */
+    void add(Task task) {
+        String tag = task.getTag();
+        if (tag == null) {
+            return;
+        }
+        TagEntry entry = entries.computeIfAbsent(toKey(tag), key -> new TagEntry(tag));
+        if (!entry.bits.get(task.getId() - 1)) {
+            entry.bits.set(task.getId() - 1);
+            entry.count++;
+        }
+    }
+
+    /**
+     * Removes a task from its tag, dropping the tag once no task carries it.
+     */
+    void remove(Task task) {
+        String tag = task.getTag();
+        if (tag == null) {
+            return;
+        }
+        String key = toKey(tag);
+        TagEntry entry = entries.get(key);
+        if (entry == null || !entry.bits.get(task.getId() - 1)) {
+            return;
+        }
+        entry.bits.clear(task.getId() - 1);
+        if (--entry.count == 0) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Returns the tasks with the given tag in list order, looking them up in the given snapshot.
+     */
+    List<Task> get(String tag, TaskTrie tasks) {
+        TagEntry entry = entries.get(toKey(tag));
+        if (entry == null) {
+            return new ArrayList<>();
+        }
+        List<Task> tagged = new ArrayList<>(entry.count);
+        for (int bit = entry.bits.nextSetBit(0); bit >= 0; bit = entry.bits.nextSetBit(bit + 1)) {
+            tagged.add(tasks.getById(bit + 1));
+        }
+        return tagged;
+    }
+
+    /**
+     * Returns the bitmap of the tasks with the given tag. The bitmap must not be modified.
+     */
+    BitSet bits(String tag) {
+        TagEntry entry = entries.get(toKey(tag));
+        return entry == null ? new BitSet() : entry.bits;
+    }
+
+    /**
+     * Returns the number of tasks with the given tag.
+     */
+    int count(String tag) {
+        TagEntry entry = entries.get(toKey(tag));
+        return entry == null ? 0 : entry.count;
+    }
+
+    /**
+     * Returns the number of tasks with each tag, keyed by the tag as first written.
+     */
+    Map<String, Integer> counts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (TagEntry entry : entries.values()) {
+            counts.put(entry.tag, entry.count);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Folds case the same way {@link String#equalsIgnoreCase(String)} compares characters.
+     */
+    private static String toKey(String tag) {
+        char[] chars = tag.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static final class TagEntry {
+        private final String tag;
+        private final BitSet bits = new BitSet();
+        private int count;
+
+        private TagEntry(String tag) {
+            this.tag = tag;
+        }
+    }
+}
@@ -5,8 +5,9 @@ package buddy.task;
  */
 public abstract class Task {
     private final String description;
-    private boolean isDone;
+    private volatile boolean isDone;
     private final String tag;
+    private int id;
 
     /**
      * Constructs a Task with the given description.
@@ -40,6 +41,20 @@ public abstract class Task {
         return description;
     }
 
+    /**
+     * Returns the ID the task list gave this task when it was added.
+     * IDs increase in list order and stay the same when other tasks are deleted.
+     *
+     * @return the task ID, or 0 if the task has not been added to a list
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Returns the tag for this task, or null if none is set.
      *
@@ -50,17 +65,20 @@ public abstract class Task {
     }
 
     /**
-     * Marks this task as done.
+     * Sets whether this task is done. Only the task package calls this, on a task it is building or through
+     * TaskList, which updates its indexes with the change.
      */
-    public void markAsDone() {
-        this.isDone = true;
+    void setDone(boolean isDone) {
+        this.isDone = isDone;
     }
 
     /**
-     * Marks this task as not done.
+     * Returns whether this task is done.
+     *
+     * @return true if the task is done, false otherwise
      */
-    public void markAsUndone() {
-        this.isDone = false;
+    public boolean isDone() {
+        return isDone;
     }
 
     /**
@@ -78,8 +96,39 @@ public abstract class Task {
      * @return the file format string
      */
     public String toFileFormat() {
-        String doneFlag = isDone ? TaskFormat.DONE_FLAG_TRUE : TaskFormat.DONE_FLAG_FALSE;
-        return doneFlag + TaskFormat.DELIMITER + description;
+        StringBuilder sb = new StringBuilder();
+        appendFileFormat(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the file format representation of the task, so a whole list can be serialized into one buffer.
+     * A task that has been added to a list starts with its ID, so the ID is kept when the list is loaded again.
+     *
+     * @param sb the builder to append to
+     */
+    public void appendFileFormat(StringBuilder sb) {
+        if (id > 0) {
+            sb.append(id).append(TaskFormat.DELIMITER);
+        }
+        appendFields(sb);
+    }
+
+    /**
+     * Appends the type and fields of the task in file format, without its ID.
+     *
+     * @param sb the builder to append to
+     */
+    protected abstract void appendFields(StringBuilder sb);
+
+    /**
+     * Appends the done flag and description, which every type of task has.
+     *
+     * @param sb the builder to append to
+     */
+    protected void appendStatusAndDescription(StringBuilder sb) {
+        sb.append(isDone ? TaskFormat.DONE_FLAG_TRUE : TaskFormat.DONE_FLAG_FALSE)
+                .append(TaskFormat.DELIMITER).append(description);
     }
 
     /**
@@ -92,8 +141,10 @@ public abstract class Task {
         return "[" + getStatusIcon() + "] " + description + formatTagForDisplay();
     }
 
-    protected String formatTagForFile() {
-        return tag == null ? "" : TaskFormat.DELIMITER + tag;
+    protected void appendTagForFile(StringBuilder sb) {
+        if (tag != null) {
+            sb.append(TaskFormat.DELIMITER).append(tag);
+        }
     }
 
     private String formatTagForDisplay() {
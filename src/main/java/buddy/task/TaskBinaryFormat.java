@@ -0,0 +1,367 @@
+package buddy.task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import buddy.BuddyException;
+
+/**
+ * Defines the compact binary serialization format for tasks.
+ * A file holds a header (magic, version, task count), a tag dictionary, the done flags as a bitmap,
+ * then one length-prefixed record per task. Dates are stored as minutes since the epoch,
+ * and integers are written as variable-length quantities.
+ *
+ * <p>Since version 2 each record holds the task's ID as its gap from the previous ID, which takes one byte
+ * unless tasks between them were deleted, or 0 for a task without one. Version 1 files, written before IDs
+ * were saved, are still read, and their tasks are given IDs when they are added to a list.
+ */
+public final class TaskBinaryFormat {
+    /** The first bytes of every binary task file: "BDYB". */
+    public static final int MAGIC = 0x42445942;
+    public static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_IDS = 1;
+
+    private static final byte TYPE_TODO = 'T';
+    private static final byte TYPE_DEADLINE = 'D';
+    private static final byte TYPE_EVENT = 'E';
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private TaskBinaryFormat() {
+    }
+
+    /**
+     * Returns whether the given bytes start with the binary format's magic number.
+     *
+     * @param header the first bytes of a file
+     * @param length the number of valid bytes in the header
+     * @return true if the bytes belong to a binary task file
+     */
+    public static boolean isBinary(byte[] header, int length) {
+        return length >= 4 && ((header[0] & 0xFF) << 24 | (header[1] & 0xFF) << 16
+                | (header[2] & 0xFF) << 8 | (header[3] & 0xFF)) == MAGIC;
+    }
+
+    /**
+     * Writes the tasks to the stream in binary format.
+     *
+     * @param tasks the tasks to write, in list order
+     * @param out the stream to write to
+     * @throws IOException if there's an error writing to the stream
+     */
+    public static void write(List<Task> tasks, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        writeVarInt(data, tasks.size());
+
+        Map<String, Integer> tagIds = new HashMap<>();
+        List<String> tags = new ArrayList<>();
+        for (Task task : tasks) {
+            String tag = task.getTag();
+            if (tag != null && !tagIds.containsKey(tag)) {
+                tagIds.put(tag, tags.size());
+                tags.add(tag);
+            }
+        }
+        writeVarInt(data, tags.size());
+        for (String tag : tags) {
+            writeString(data, tag);
+        }
+
+        byte[] doneFlags = new byte[(tasks.size() + 7) / 8];
+        int index = 0;
+        for (Task task : tasks) {
+            if (task.isDone()) {
+                doneFlags[index / 8] |= (byte) (1 << (index % 8));
+            }
+            index++;
+        }
+        data.write(doneFlags);
+
+        // Each record is buffered so its length can be written before its bytes
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream recordData = new DataOutputStream(record);
+        int previousId = 0;
+        for (Task task : tasks) {
+            record.reset();
+            // IDs increase along a list, so only an ID past the previous one can be stored as a gap
+            int idGap = task.getId() > previousId ? task.getId() - previousId : 0;
+            previousId = Math.max(previousId, task.getId());
+            writeRecord(recordData, task, idGap, tagIds);
+            writeVarInt(data, record.size());
+            record.writeTo(data);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads tasks from a binary stream, handing each one to the consumer in list order.
+     * Counts and lengths in the stream are checked against the bytes left, and each record must
+     * fill exactly the length it declares, so a corrupt file is rejected instead of over-allocating.
+     *
+     * @param in the stream to read from
+     * @param length the number of bytes in the stream
+     * @param taskConsumer the consumer to receive each task
+     * @throws BuddyException if the stream is not a supported, well-formed binary task file
+     * @throws IOException if there's an error reading from the stream
+     */
+    public static void read(InputStream in, long length, Consumer<Task> taskConsumer)
+            throws BuddyException, IOException {
+        BoundedInput input = new BoundedInput(in, length);
+        try {
+            if (input.readInt() != MAGIC) {
+                throw new BuddyException("Not a binary task file");
+            }
+            int version = input.readUnsignedShort();
+            if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+                throw new BuddyException("Unsupported binary task file version: " + version);
+            }
+            // Every task takes at least one byte for its record length, and every tag one for its own
+            int taskCount = input.readLength("task count");
+            String[] tags = new String[input.readLength("tag count")];
+            for (int i = 0; i < tags.length; i++) {
+                tags[i] = readString(input);
+            }
+            byte[] doneFlags = input.readBytes((taskCount + 7) / 8);
+
+            int previousId = 0;
+            for (int i = 0; i < taskCount; i++) {
+                int recordLength = input.readLength("record length");
+                BoundedInput record = new BoundedInput(
+                        new ByteArrayInputStream(input.readBytes(recordLength)), recordLength);
+                Task task = readRecord(record, version == VERSION, previousId, tags, i);
+                previousId = Math.max(previousId, task.getId());
+                if ((doneFlags[i / 8] & (1 << (i % 8))) != 0) {
+                    task.setDone(true);
+                }
+                taskConsumer.accept(task);
+            }
+        } catch (EOFException e) {
+            throw new BuddyException("Binary task file is truncated");
+        }
+    }
+
+    /**
+     * Converts lines in the text format to the binary format.
+     *
+     * @param lines the task lines in text format
+     * @param out the stream to write the binary tasks to
+     * @throws BuddyException if a line is not a valid task
+     * @throws IOException if there's an error writing to the stream
+     */
+    public static void fromText(List<String> lines, OutputStream out) throws BuddyException, IOException {
+        List<Task> tasks = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            tasks.add(TaskParser.parseFromFile(line));
+        }
+        write(tasks, out);
+    }
+
+    /**
+     * Converts a binary stream to lines in the text format.
+     *
+     * @param in the stream to read binary tasks from
+     * @param length the number of bytes in the stream
+     * @param lineConsumer the consumer to receive each task line in text format
+     * @throws BuddyException if the stream is not a supported binary task file
+     * @throws IOException if there's an error reading from the stream
+     */
+    public static void toText(InputStream in, long length, Consumer<String> lineConsumer)
+            throws BuddyException, IOException {
+        read(in, length, task -> lineConsumer.accept(task.toFileFormat()));
+    }
+
+    private static void writeRecord(DataOutputStream data, Task task, int idGap, Map<String, Integer> tagIds)
+            throws IOException {
+        String tag = task.getTag();
+        if (task instanceof Deadline deadline) {
+            data.writeByte(TYPE_DEADLINE);
+            writeVarInt(data, idGap);
+            writeVarInt(data, tag == null ? 0 : tagIds.get(tag) + 1);
+            writeString(data, task.getDescription());
+            writeVarLong(data, toEpochMinutes(deadline.getDateTime()));
+        } else if (task instanceof Event event) {
+            data.writeByte(TYPE_EVENT);
+            writeVarInt(data, idGap);
+            writeVarInt(data, tag == null ? 0 : tagIds.get(tag) + 1);
+            writeString(data, task.getDescription());
+            writeVarLong(data, toEpochMinutes(event.getStartTime()));
+            writeVarLong(data, toEpochMinutes(event.getEndTime()));
+        } else {
+            data.writeByte(TYPE_TODO);
+            writeVarInt(data, idGap);
+            writeVarInt(data, tag == null ? 0 : tagIds.get(tag) + 1);
+            writeString(data, task.getDescription());
+        }
+    }
+
+    /**
+     * Reads one task from the bytes of its record, which its fields must fill exactly.
+     * If the record has an ID field, a task with an ID gets it by adding the gap to the previous ID.
+     */
+    private static Task readRecord(BoundedInput record, boolean hasId, int previousId, String[] tags, int index)
+            throws BuddyException, IOException {
+        Task task;
+        int id = 0;
+        try {
+            byte type = record.readByte();
+            if (hasId) {
+                int idGap = record.readVarInt();
+                if (idGap < 0 || (long) previousId + idGap >= Integer.MAX_VALUE) {
+                    throw new BuddyException("Invalid task ID in binary task file: gap of " + idGap);
+                }
+                id = idGap == 0 ? 0 : previousId + idGap;
+            }
+            int tagId = record.readVarInt();
+            if (tagId < 0 || tagId > tags.length) {
+                throw new BuddyException("Invalid tag reference in binary task file");
+            }
+            String tag = tagId == 0 ? null : tags[tagId - 1];
+            String description = readString(record);
+            task = switch (type) {
+            case TYPE_TODO -> new Todo(description, tag);
+            case TYPE_DEADLINE -> new Deadline(description, fromEpochMinutes(record.readVarLong()), tag);
+            case TYPE_EVENT -> new Event(description, fromEpochMinutes(record.readVarLong()),
+                    fromEpochMinutes(record.readVarLong()), tag);
+            default -> throw new BuddyException("Unknown task type in binary task file: " + type);
+            };
+        } catch (EOFException e) {
+            throw new BuddyException("Task record " + (index + 1) + " is shorter than its fields");
+        }
+        if (record.remaining > 0) {
+            throw new BuddyException("Task record " + (index + 1) + " is longer than its fields");
+        }
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static long toEpochMinutes(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_MINUTE);
+    }
+
+    private static LocalDateTime fromEpochMinutes(long epochMinutes) throws BuddyException {
+        try {
+            return LocalDateTime.ofEpochSecond(Math.multiplyExact(epochMinutes, SECONDS_PER_MINUTE), 0,
+                    ZoneOffset.UTC);
+        } catch (ArithmeticException | DateTimeException e) {
+            throw new BuddyException("Invalid date in binary task file: " + epochMinutes + " minutes");
+        }
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(data, bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(BoundedInput input) throws BuddyException, IOException {
+        return new String(input.readBytes(input.readLength("string length")), StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        writeVarLong(data, value);
+    }
+
+    /**
+     * Writes a zigzag-encoded value seven bits at a time, so small magnitudes take few bytes.
+     */
+    private static void writeVarLong(DataOutputStream data, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            data.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        data.writeByte((int) zigzag);
+    }
+
+    /**
+     * Reads from a stream of known length, tracking how many bytes are left so that counts and lengths
+     * read from the stream can be checked before anything is allocated for them.
+     */
+    private static final class BoundedInput {
+        private final DataInputStream data;
+        private long remaining;
+
+        BoundedInput(InputStream in, long length) {
+            this.data = new DataInputStream(in);
+            this.remaining = length;
+        }
+
+        int readInt() throws IOException {
+            consume(Integer.BYTES);
+            return data.readInt();
+        }
+
+        int readUnsignedShort() throws IOException {
+            consume(Short.BYTES);
+            return data.readUnsignedShort();
+        }
+
+        byte readByte() throws IOException {
+            consume(Byte.BYTES);
+            return data.readByte();
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            consume(length);
+            byte[] bytes = new byte[length];
+            data.readFully(bytes);
+            return bytes;
+        }
+
+        /**
+         * Reads a count or length, which can be no more than the bytes left as each item takes at least one.
+         */
+        int readLength(String name) throws BuddyException, IOException {
+            long value = readVarLong();
+            if (value < 0 || value > remaining) {
+                throw new BuddyException("Invalid " + name + " in binary task file: " + value);
+            }
+            return (int) value;
+        }
+
+        int readVarInt() throws BuddyException, IOException {
+            long value = readVarLong();
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new BuddyException("Number out of range in binary task file: " + value);
+            }
+            return (int) value;
+        }
+
+        long readVarLong() throws BuddyException, IOException {
+            long zigzag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+            }
+            throw new BuddyException("Malformed variable-length number in binary task file");
+        }
+
+        private void consume(long count) throws EOFException {
+            if (count > remaining) {
+                throw new EOFException();
+            }
+            remaining -= count;
+        }
+    }
+}
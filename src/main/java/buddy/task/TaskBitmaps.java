@@ -0,0 +1,103 @@
+package buddy.task;
+
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * TaskBitmaps keeps one bitmap per task type and one of the tasks that are done, each with a bit per task
+ * at its ID - 1. Status and type filters are answered by combining whole words of these bitmaps
+ * and counting their set bits, instead of checking every task's flag and class.
+ * The bits of deleted tasks are cleared, so the type bitmaps together hold exactly the tasks in the list.
+ */
+class TaskBitmaps {
+    private final BitSet todos = new BitSet();
+    private final BitSet deadlines = new BitSet();
+    private final BitSet events = new BitSet();
+    private final BitSet done = new BitSet();
+
+    /**
+     * Records a task's type and status.
+     */
+    void add(Task task) {
+        int bit = task.getId() - 1;
+        typeBits(task).set(bit);
+        done.set(bit, task.isDone());
+    }
+
+    /**
+     * Clears a task's bits.
+     */
+    void remove(Task task) {
+        int bit = task.getId() - 1;
+        typeBits(task).clear(bit);
+        done.clear(bit);
+    }
+
+    /**
+     * Records a change to a task's status.
+     */
+    void updateDone(Task task) {
+        done.set(task.getId() - 1, task.isDone());
+    }
+
+    /**
+     * Returns a new bitmap of the tasks that have any of the requested types, or any type if none is requested,
+     * and every requested status.
+     */
+    BitSet select(Set<TaskFilter> filters) {
+        BitSet selected = new BitSet();
+        boolean hasTypeFilter = false;
+        if (filters.contains(TaskFilter.TODOS)) {
+            selected.or(todos);
+            hasTypeFilter = true;
+        }
+        if (filters.contains(TaskFilter.DEADLINES)) {
+            selected.or(deadlines);
+            hasTypeFilter = true;
+        }
+        if (filters.contains(TaskFilter.EVENTS)) {
+            selected.or(events);
+            hasTypeFilter = true;
+        }
+        if (!hasTypeFilter) {
+            selected.or(todos);
+            selected.or(deadlines);
+            selected.or(events);
+        }
+        if (filters.contains(TaskFilter.DONE)) {
+            selected.and(done);
+        }
+        if (filters.contains(TaskFilter.UNDONE)) {
+            selected.andNot(done);
+        }
+        return selected;
+    }
+
+    /**
+     * Returns the index of the set bit with the given rank, counted from 0, or -1 if the bitmap has no more set bits.
+     * Whole words before it are skipped by counting their bits, so this does not step through every earlier match.
+     */
+    static int select(BitSet bits, int rank) {
+        long[] words = bits.toLongArray();
+        int remaining = rank;
+        for (int i = 0; i < words.length; i++) {
+            int count = Long.bitCount(words[i]);
+            if (remaining < count) {
+                long word = words[i];
+                for (int j = 0; j < remaining; j++) {
+                    word &= word - 1; // Clears the lowest set bit
+                }
+                return i * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+            remaining -= count;
+        }
+        return -1;
+    }
+
+    private BitSet typeBits(Task task) {
+        if (task instanceof Deadline) {
+            return deadlines;
+        }
+        return task instanceof Event ? events : todos;
+    }
+}
@@ -0,0 +1,19 @@
+package buddy.task;
+
+/**
+ * Describes one change made to a TaskList, as reported when the change is undone or redone.
+ *
+ * @param kind what the change did
+ * @param task the task it affected
+ */
+public record TaskChange(Kind kind, Task task) {
+    /**
+     * The kinds of change a TaskList records.
+     */
+    public enum Kind {
+        ADDED,
+        DELETED,
+        MARKED,
+        UNMARKED
+    }
+}
@@ -0,0 +1,29 @@
+package buddy.task;
+
+/**
+ * Filters on a task's status or type that a TaskList answers from bitmaps.
+ * Type filters widen a selection together, so TODOS and EVENTS selects both; status filters narrow it.
+ */
+public enum TaskFilter {
+    DONE,
+    UNDONE,
+    TODOS,
+    DEADLINES,
+    EVENTS;
+
+    /**
+     * Returns the filter named by a word such as "undone" or "deadlines", ignoring case and a trailing "s".
+     *
+     * @param word the word to look up
+     * @return the filter, or null if the word does not name one
+     */
+    public static TaskFilter fromWord(String word) {
+        String name = word.toUpperCase();
+        for (TaskFilter filter : values()) {
+            if (filter.name().equals(name) || filter.name().equals(name + "S")) {
+                return filter;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,80 @@
+package buddy.task;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * TaskHistory keeps the recent versions of a task list for undo and redo.
+ * A version is the immutable trie before and after a change, plus the change itself so the
+ * indexes and done flags, which live outside the trie, can be moved with it. Tries share every node
+ * the change did not touch, so each version costs a root-to-leaf path rather than a copy of the list.
+ * At most the configured number of versions is kept; the oldest are dropped first.
+ */
+class TaskHistory {
+    private final Deque<Version> undoVersions = new ArrayDeque<>();
+    private final Deque<Version> redoVersions = new ArrayDeque<>();
+    private int depth;
+
+    /**
+     * Sets how many versions to keep, dropping the oldest ones if there are too many.
+     */
+    void setDepth(int depth) {
+        assert depth >= 0 : "History depth should not be negative";
+        this.depth = depth;
+        while (undoVersions.size() > depth) {
+            undoVersions.removeLast();
+        }
+        while (redoVersions.size() > depth) {
+            redoVersions.removeLast();
+        }
+    }
+
+    /**
+     * Records a new version. Any undone versions can no longer be redone.
+     */
+    void record(Version version) {
+        redoVersions.clear();
+        if (depth == 0) {
+            return;
+        }
+        if (undoVersions.size() == depth) {
+            undoVersions.removeLast();
+        }
+        undoVersions.push(version);
+    }
+
+    /**
+     * Moves the latest version to the redo history and returns it, or returns null if there is none.
+     */
+    Version undo() {
+        Version version = undoVersions.poll();
+        if (version != null) {
+            redoVersions.push(version);
+        }
+        return version;
+    }
+
+    /**
+     * Moves the latest undone version back to the undo history and returns it, or returns null if there is none.
+     */
+    Version redo() {
+        Version version = redoVersions.poll();
+        if (version != null) {
+            undoVersions.push(version);
+        }
+        return version;
+    }
+
+    /**
+     * One step of history: the list before and after, and the changes in the order they were made.
+     */
+    record Version(TaskTrie before, TaskTrie after, List<Change> changes) {
+    }
+
+    /**
+     * A change to one task. For a mark or unmark, wasDone is the task's status before it.
+     */
+    record Change(TaskChange.Kind kind, Task task, boolean wasDone) {
+    }
+}
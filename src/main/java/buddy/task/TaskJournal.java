@@ -0,0 +1,92 @@
+package buddy.task;
+
+import buddy.BuddyException;
+
+/**
+ * TaskJournal builds and replays the journal records that describe changes to a TaskList.
+ */
+public final class TaskJournal {
+    private static final String TYPE_ADD = "A";
+    private static final String TYPE_DELETE = "D";
+    private static final String TYPE_MARK = "M";
+    private static final String TYPE_UNMARK = "U";
+
+    private TaskJournal() {
+    }
+
+    /**
+     * Returns the journal record for adding a task to the end of the list.
+     *
+     * @param task the task that was added
+     * @return the journal record
+     */
+    public static String added(Task task) {
+        return TYPE_ADD + TaskFormat.DELIMITER + task.toFileFormat();
+    }
+
+    /**
+     * Returns the journal record for deleting the task at an index.
+     *
+     * @param index the 0-based index of the deleted task
+     * @return the journal record
+     */
+    public static String deleted(int index) {
+        return TYPE_DELETE + TaskFormat.DELIMITER + index;
+    }
+
+    /**
+     * Returns the journal record for marking the task at an index as done.
+     *
+     * @param index the 0-based index of the marked task
+     * @return the journal record
+     */
+    public static String marked(int index) {
+        return TYPE_MARK + TaskFormat.DELIMITER + index;
+    }
+
+    /**
+     * Returns the journal record for marking the task at an index as not done.
+     *
+     * @param index the 0-based index of the unmarked task
+     * @return the journal record
+     */
+    public static String unmarked(int index) {
+        return TYPE_UNMARK + TaskFormat.DELIMITER + index;
+    }
+
+    /**
+     * Applies a journal record to the task list.
+     *
+     * @param record the journal record in format: "type | payload"
+     * @param taskList the task list to apply the record to
+     * @throws BuddyException if the record is invalid
+     */
+    public static void apply(String record, TaskList taskList) throws BuddyException {
+        int delimiterIndex = record.indexOf(TaskFormat.DELIMITER);
+        if (delimiterIndex == -1) {
+            throw new BuddyException("Invalid journal record");
+        }
+        String type = record.substring(0, delimiterIndex);
+        String payload = record.substring(delimiterIndex + TaskFormat.DELIMITER.length());
+
+        switch (type) {
+        case TYPE_ADD -> taskList.addTask(TaskParser.parseFromFile(payload));
+        case TYPE_DELETE -> taskList.removeTask(parseIndex(payload, taskList));
+        case TYPE_MARK -> taskList.markTask(parseIndex(payload, taskList));
+        case TYPE_UNMARK -> taskList.unmarkTask(parseIndex(payload, taskList));
+        default -> throw new BuddyException("Unknown journal record type: " + type);
+        }
+    }
+
+    private static int parseIndex(String payload, TaskList taskList) throws BuddyException {
+        try {
+            int index = Integer.parseInt(payload.trim());
+            if (index < 0 || index >= taskList.size()) {
+                throw new BuddyException("Journal record refers to a missing task: " + index);
+            }
+            return index;
+        } catch (NumberFormatException e) {
+            throw new BuddyException("Invalid journal task index: " + payload);
+        }
+    }
+}
@@ -1,29 +1,88 @@
 package buddy.task;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * TaskList manages a list of tasks with operations to add, delete, and retrieve tasks.
+ * Each task gets an ID when it is added that, unlike its list position, does not change when other tasks
+ * are deleted. IDs are saved with the tasks and kept when they are loaded, and a new task gets one more
+ * than the highest ID in the list, so an ID names the same task from one session to the next.
+ * It keeps tag, date, upcoming and text indexes, status and type bitmaps and running statistics
+ * alongside the list so lookups do not scan every task.
+ *
+ * <p>Reading never copies the list: iteration, streams, getAllTasks and toFileFormat are all views
+ * of the snapshot that was current when they were requested.
+ *
+ * <p>Changes can be undone and redone. Because the list is an immutable trie, each version in the history
+ * shares all the nodes its change did not touch, so keeping a version costs a path, not a copy of the list.
+ * History is off until a depth is set, so loading a task file does not fill it.
+ *
+ * <p>TaskList is safe to share between threads. Changes take a write lock, so they apply one at a time,
+ * and publish a new immutable snapshot of the list. Reading the list works on the latest snapshot without
+ * locking or copying, while index lookups take a read lock.
  */
-public class TaskList {
-    private final ArrayList<Task> tasks;
+public class TaskList implements Iterable<Task> {
+    /** The number of candidates above which a query checks them in parallel, enough to outweigh forking. */
+    static final int PARALLEL_SCAN_THRESHOLD = 20_000;
+    /** The number of recent query results kept for queries that are run again. */
+    static final int QUERY_CACHE_CAPACITY = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TagIndex tagIndex = new TagIndex();
+    private final DateIndex dateIndex = new DateIndex();
+    private final TaskBitmaps bitmaps = new TaskBitmaps();
+    private final StatsIndex statsIndex = new StatsIndex();
+    private final TaskHistory history = new TaskHistory();
+    private final QueryCache queryCache = new QueryCache(QUERY_CACHE_CAPACITY);
+    private volatile TaskTrie tasks = TaskTrie.EMPTY;
+    // Built on first use, so start-up does not pay for indexes a session may never query
+    private TextIndex textIndex;
+    private UpcomingIndex upcomingIndex;
 
     /**
      * Creates an empty TaskList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
     }
 
     /**
-     * Adds a task to the list.
+     * Adds a task to the list. A task loaded with a saved ID keeps it if it is higher than every ID
+     * in the list; any other task is given the next ID.
      *
      * @param task the task to add
      */
     public void addTask(Task task) {
         assert task != null : "Task should not be null";
-        tasks.add(task);
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            // A loaded task keeps its saved ID unless that would break the order of IDs along the list
+            if (task.getId() < tasks.nextId() || task.getId() == Integer.MAX_VALUE) {
+                task.setId(tasks.nextId());
+            }
+            TaskTrie updated = tasks.append(task);
+            indexTask(task);
+            record(updated, List.of(new TaskHistory.Change(TaskChange.Kind.ADDED, task, false)));
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
@@ -34,8 +93,156 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if index is invalid
      */
     public Task removeTask(int index) {
-        assert index >= 0 && index < tasks.size() : "Index out of bounds";
-        return tasks.remove(index);
+        return removeTasks(new int[] {index}).get(0);
+    }
+
+    /**
+     * Removes the tasks at the specified indexes as one change, which a single undo reverts.
+     * The list is compacted once, however many tasks are removed.
+     *
+     * @param indexes the 0-based indexes of the tasks to remove, sorted and distinct
+     * @return the removed tasks, in list order
+     * @throws IndexOutOfBoundsException if an index is invalid
+     */
+    public List<Task> removeTasks(int[] indexes) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            List<Task> removedTasks = new ArrayList<>(indexes.length);
+            List<TaskHistory.Change> changes = new ArrayList<>(indexes.length);
+            for (int index : indexes) {
+                Task removedTask = tasks.get(index);
+                removedTasks.add(removedTask);
+                changes.add(new TaskHistory.Change(TaskChange.Kind.DELETED, removedTask, false));
+            }
+            TaskTrie updated = indexes.length == 1 ? tasks.removeAt(indexes[0]) : tasks.removeAll(indexes);
+            clearQueryCacheFor(indexes.length);
+            for (Task removedTask : removedTasks) {
+                unindexTask(removedTask);
+            }
+            record(updated, changes);
+            return removedTasks;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the task at the specified index as done.
+     *
+     * @param index the 0-based index of the task
+     * @return the marked task
+     * @throws IndexOutOfBoundsException if index is invalid
+     */
+    public Task markTask(int index) {
+        return setDone(new int[] {index}, true).get(0);
+    }
+
+    /**
+     * Marks the tasks at the specified indexes as done, as one change which a single undo reverts.
+     *
+     * @param indexes the 0-based indexes of the tasks, sorted and distinct
+     * @return the marked tasks, in list order
+     * @throws IndexOutOfBoundsException if an index is invalid
+     */
+    public List<Task> markTasks(int[] indexes) {
+        return setDone(indexes, true);
+    }
+
+    /**
+     * Marks the task at the specified index as not done.
+     *
+     * @param index the 0-based index of the task
+     * @return the unmarked task
+     * @throws IndexOutOfBoundsException if index is invalid
+     */
+    public Task unmarkTask(int index) {
+        return setDone(new int[] {index}, false).get(0);
+    }
+
+    /**
+     * Marks the tasks at the specified indexes as not done, as one change which a single undo reverts.
+     *
+     * @param indexes the 0-based indexes of the tasks, sorted and distinct
+     * @return the unmarked tasks, in list order
+     * @throws IndexOutOfBoundsException if an index is invalid
+     */
+    public List<Task> unmarkTasks(int[] indexes) {
+        return setDone(indexes, false);
+    }
+
+    /**
+     * Sets how many changes can be undone. Setting 0 turns history off.
+     *
+     * @param depth the number of versions to keep
+     */
+    public void setHistoryDepth(int depth) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            history.setDepth(depth);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Reverts the latest change that has not been undone.
+     *
+     * @return the changes that were reverted, in the order they were made, or an empty list if there is nothing
+     *     to undo
+     */
+    public List<TaskChange> undo() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            TaskHistory.Version version = history.undo();
+            if (version == null) {
+                return List.of();
+            }
+            List<TaskHistory.Change> changes = version.changes();
+            clearQueryCacheFor(changes.size());
+            for (int i = changes.size() - 1; i >= 0; i--) {
+                TaskHistory.Change change = changes.get(i);
+                switch (change.kind()) {
+                case ADDED -> unindexTask(change.task());
+                case DELETED -> indexTask(change.task());
+                default -> applyDone(change.task(), change.wasDone());
+                }
+            }
+            tasks = version.before();
+            return toTaskChanges(changes);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Applies the latest undone change again.
+     *
+     * @return the changes that were applied, in order, or an empty list if there is nothing to redo
+     */
+    public List<TaskChange> redo() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            TaskHistory.Version version = history.redo();
+            if (version == null) {
+                return List.of();
+            }
+            clearQueryCacheFor(version.changes().size());
+            for (TaskHistory.Change change : version.changes()) {
+                switch (change.kind()) {
+                case ADDED -> indexTask(change.task());
+                case DELETED -> unindexTask(change.task());
+                default -> applyDone(change.task(), change.kind() == TaskChange.Kind.MARKED);
+                }
+            }
+            tasks = version.after();
+            return toTaskChanges(version.changes());
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
@@ -46,10 +253,19 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if index is invalid
      */
     public Task getTask(int index) {
-        assert index >= 0 && index < tasks.size() : "Index out of bounds";
         return tasks.get(index);
     }
 
+    /**
+     * Returns the current 0-based index of the task with the given ID.
+     *
+     * @param id the ID of the task
+     * @return the index of the task, or -1 if no task in the list has that ID
+     */
+    public int indexOfId(int id) {
+        return tasks.positionOfId(id);
+    }
+
     /**
      * Returns the number of tasks in the list.
      *
@@ -70,23 +286,450 @@ public class TaskList {
 
     /**
      * Returns all tasks as a list.
+     * The list is an immutable snapshot that later changes to the task list do not affect,
+     * so it can be iterated from any thread without copying or locking.
      *
-     * @return a copy of the task list
+     * @return a snapshot of the task list
      */
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks);
+        return tasks;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the tasks in list order.
+     *
+     * @return an iterator that does not see later changes to the list
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return tasks.iterator();
+    }
+
+    /**
+     * Returns a spliterator over a snapshot of the tasks in list order.
+     *
+     * @return a sized, ordered and immutable spliterator
+     */
+    @Override
+    public Spliterator<Task> spliterator() {
+        return tasks.spliterator();
+    }
+
+    /**
+     * Returns a sequential stream over a snapshot of the tasks in list order.
+     *
+     * @return a stream of the tasks
+     */
+    public Stream<Task> stream() {
+        return tasks.stream();
+    }
+
+    /**
+     * Returns the tasks with the given tag, ignoring case, in list order.
+     *
+     * @param tag the normalised tag to look up
+     * @return the matching tasks
+     */
+    public List<Task> getTasksWithTag(String tag) {
+        return read(() -> tagIndex.get(tag, tasks));
+    }
+
+    /**
+     * Returns the number of tasks with the given tag, ignoring case.
+     *
+     * @param tag the normalised tag to count
+     * @return the number of matching tasks
+     */
+    public int countTasksWithTag(String tag) {
+        return read(() -> tagIndex.count(tag));
+    }
+
+    /**
+     * Counts the tasks that match every given filter and, if one is given, carry the tag.
+     * The count comes from combining bitmaps, without visiting any task.
+     *
+     * @param filters the status and type filters; type filters match a task of any of the types
+     * @param tag the tag to match, or null to match any task
+     * @return the number of matching tasks
+     */
+    public int countTasksMatching(Set<TaskFilter> filters, String tag) {
+        return read(() -> select(filters, tag).cardinality());
+    }
+
+    /**
+     * Returns a page of the tasks that match every given filter and, if one is given, carry the tag,
+     * in list order. The first match on the page is found by counting whole words of the bitmap,
+     * and only the tasks on the page are looked up.
+     *
+     * @param filters the status and type filters; type filters match a task of any of the types
+     * @param tag the tag to match, or null to match any task
+     * @param skip the number of matching tasks to skip
+     * @param limit the maximum number of tasks to return
+     * @return the matching tasks on the page
+     */
+    public List<Task> getTasksMatching(Set<TaskFilter> filters, String tag, int skip, int limit) {
+        return read(() -> {
+            BitSet selected = select(filters, tag);
+            List<Task> matches = new ArrayList<>(Math.min(limit, selected.cardinality()));
+            int bit = TaskBitmaps.select(selected, skip);
+            for (; bit >= 0 && matches.size() < limit; bit = selected.nextSetBit(bit + 1)) {
+                matches.add(tasks.getById(bit + 1));
+            }
+            return matches;
+        });
+    }
+
+    /**
+     * Returns the number of tasks carrying each tag.
+     *
+     * @return an unmodifiable map from each tag, as first written, to its task count
+     */
+    public Map<String, Integer> getTagCounts() {
+        return read(tagIndex::counts);
+    }
+
+    /**
+     * Returns a summary of the list: totals by type and status, tag counts, overdue deadlines and the events
+     * in a week. The totals are kept as tasks change and the dated figures are counted in logarithmic time,
+     * so the list is not scanned.
+     *
+     * @param now the time before which an undone deadline is overdue
+     * @param weekStart the start of the week to count events in, inclusive
+     * @param weekEnd the end of the week to count events in, inclusive
+     * @return the summary
+     */
+    public TaskStats getStats(LocalDateTime now, LocalDateTime weekStart, LocalDateTime weekEnd) {
+        buildOnFirstUse(statsIndex::hasDateRanks, () -> statsIndex.buildDateRanks(tasks));
+        return read(() -> statsIndex.snapshot(now, weekStart, weekEnd, tagIndex.counts()));
+    }
+
+    /**
+     * Returns the tasks whose description contains the keyword, ignoring case, in list order.
+     *
+     * @param keyword the text to look for, which may span several words
+     * @return the matching tasks
+     */
+    public List<Task> findTasksContaining(String keyword) {
+        buildTextIndex();
+        return read(() -> textIndex.find(keyword));
+    }
+
+    /**
+     * Returns up to limit tasks whose description contains text close to the term, closest first,
+     * allowing one typo per four characters of the term.
+     *
+     * @param term the text to look for
+     * @param limit the maximum number of tasks to return
+     * @return the closest matching tasks
+     */
+    public List<Task> findSimilarTasks(String term, int limit) {
+        buildTextIndex();
+        return read(() -> textIndex.findSimilar(term, limit));
+    }
+
+    /**
+     * Returns the tasks that match a query, in list order.
+     * The query runs from the access path its plan estimates to yield the fewest candidates,
+     * and only those candidates are checked against the rest of the query. When there are many candidates
+     * and more than one core, they are checked in parallel on the common fork-join pool.
+     * Results are cached until a change to a task they could include, so repeating a query is a lookup.
+     *
+     * @param query the query to run
+     * @return the matching tasks
+     */
+    public List<Task> findTasks(TaskQuery query) {
+        buildIndexesFor(query);
+        return read(() -> {
+            List<Task> cached = queryCache.get(query);
+            if (cached != null) {
+                return cached;
+            }
+            List<Task> candidates = candidates(plan(query).chosenPath(), query);
+            Stream<Task> scan = candidates.size() >= PARALLEL_SCAN_THRESHOLD
+                    && ForkJoinPool.getCommonPoolParallelism() > 1 ? candidates.parallelStream() : candidates.stream();
+            // The trie and candidate lists split in list order, and toList keeps that order across threads
+            List<Task> matches = scan.filter(query::matches).toList();
+            queryCache.put(query, matches);
+            return matches;
+        });
+    }
+
+    /**
+     * Returns the hit, miss, eviction and invalidation counts of the query result cache.
+     *
+     * @return the cache counters
+     */
+    public QueryCacheStats getQueryCacheStats() {
+        return queryCache.stats();
+    }
+
+    /**
+     * Returns the plan {@link #findTasks(TaskQuery)} would use for a query, without running it.
+     *
+     * @param query the query to plan
+     * @return the plan
+     */
+    public QueryPlan planQuery(TaskQuery query) {
+        buildIndexesFor(query);
+        return read(() -> plan(query));
+    }
+
+    /**
+     * Returns the deadlines due on the given date and the events that span it, in list order.
+     *
+     * @param date the date to look up
+     * @return the matching tasks
+     */
+    public List<Task> getTasksOn(LocalDate date) {
+        return getTasksOverlapping(date.atStartOfDay(), date.atTime(LocalTime.MAX));
+    }
+
+    /**
+     * Returns the deadlines and events whose dates overlap the given range, in list order.
+     *
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, inclusive
+     * @return the matching tasks
+     */
+    public List<Task> getTasksOverlapping(LocalDateTime start, LocalDateTime end) {
+        return read(() -> dateIndex.findOverlapping(start, end));
+    }
+
+    /**
+     * Returns the undone deadlines and events due at or after the given time, soonest first.
+     * A deadline is due at its due time and an event at its start time.
+     *
+     * @param from the earliest due time to include
+     * @param limit the maximum number of tasks to return
+     * @return up to limit matching tasks
+     */
+    public List<Task> getUpcomingTasks(LocalDateTime from, int limit) {
+        buildOnFirstUse(() -> upcomingIndex != null, () -> {
+            UpcomingIndex index = new UpcomingIndex();
+            tasks.forEach(index::add);
+            upcomingIndex = index;
+        });
+        return read(() -> upcomingIndex.findNext(from, limit));
     }
 
     /**
      * Converts all tasks to file format strings.
+     * The result is a read-only view of the current snapshot that formats each task as it is read,
+     * so a save can stream the lines to the file without building them all first.
      *
      * @return a list of task strings in file format
      */
     public List<String> toFileFormat() {
-        ArrayList<String> taskStrings = new ArrayList<>();
-        for (Task task : tasks) {
-            taskStrings.add(task.toFileFormat());
+        return new FileFormatLines(tasks);
+    }
+
+    private List<Task> setDone(int[] indexes, boolean isDone) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            TaskChange.Kind kind = isDone ? TaskChange.Kind.MARKED : TaskChange.Kind.UNMARKED;
+            List<Task> updatedTasks = new ArrayList<>(indexes.length);
+            List<TaskHistory.Change> changes = new ArrayList<>(indexes.length);
+            for (int index : indexes) {
+                updatedTasks.add(tasks.get(index));
+            }
+            clearQueryCacheFor(updatedTasks.size());
+            for (Task task : updatedTasks) {
+                changes.add(new TaskHistory.Change(kind, task, task.isDone()));
+                applyDone(task, isDone);
+            }
+            record(tasks, changes);
+            return updatedTasks;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes the updated trie and records the changes as a new version. Callers hold the write lock.
+     */
+    private void record(TaskTrie updated, List<TaskHistory.Change> changes) {
+        history.record(new TaskHistory.Version(tasks, updated, changes));
+        tasks = updated;
+    }
+
+    /**
+     * Sets a task's done flag, updating the upcoming index, stats and done bitmap to match.
+     * Callers hold the write lock.
+     */
+    private void applyDone(Task task, boolean isDone) {
+        if (upcomingIndex != null) {
+            upcomingIndex.remove(task);
+        }
+        statsIndex.remove(task);
+        queryCache.invalidate(task);
+        task.setDone(isDone);
+        queryCache.invalidate(task);
+        if (upcomingIndex != null) {
+            upcomingIndex.add(task);
+        }
+        statsIndex.add(task);
+        bitmaps.updateDone(task);
+    }
+
+    private void indexTask(Task task) {
+        tagIndex.add(task);
+        dateIndex.add(task);
+        bitmaps.add(task);
+        statsIndex.add(task);
+        queryCache.invalidate(task);
+        if (textIndex != null) {
+            textIndex.add(task);
+        }
+        if (upcomingIndex != null) {
+            upcomingIndex.add(task);
+        }
+    }
+
+    private void unindexTask(Task task) {
+        tagIndex.remove(task);
+        dateIndex.remove(task);
+        bitmaps.remove(task);
+        statsIndex.remove(task);
+        queryCache.invalidate(task);
+        if (textIndex != null) {
+            textIndex.remove(task);
+        }
+        if (upcomingIndex != null) {
+            upcomingIndex.remove(task);
+        }
+    }
+
+    /**
+     * Drops every cached query result up front when a change touches too many tasks to check each one.
+     */
+    private void clearQueryCacheFor(int changedTaskCount) {
+        if (queryCache.isCheaperToClear(changedTaskCount)) {
+            queryCache.invalidateAll();
+        }
+    }
+
+    private static List<TaskChange> toTaskChanges(List<TaskHistory.Change> changes) {
+        List<TaskChange> taskChanges = new ArrayList<>(changes.size());
+        for (TaskHistory.Change change : changes) {
+            taskChanges.add(new TaskChange(change.kind(), change.task()));
+        }
+        return taskChanges;
+    }
+
+    private void buildIndexesFor(TaskQuery query) {
+        if (query.keywords().stream().anyMatch(TextIndex::canLookUp)) {
+            buildTextIndex();
+        }
+        if (query.hasDateRange()) {
+            buildOnFirstUse(dateIndex::hasEndRank, dateIndex::buildEndRank);
+        }
+    }
+
+    private void buildTextIndex() {
+        buildOnFirstUse(() -> textIndex != null, () -> {
+            TextIndex index = new TextIndex();
+            tasks.forEach(index::add);
+            textIndex = index;
+        });
+    }
+
+    /**
+     * Estimates how many candidates each usable index would yield for the query and orders them cheapest first.
+     * Bitmap and date counts are exact; keyword counts are upper bounds. Bitmaps win ties. Callers hold a lock.
+     */
+    private QueryPlan plan(TaskQuery query) {
+        List<QueryPlan.AccessPath> paths = new ArrayList<>();
+        if (query.hasBitmapCriteria()) {
+            paths.add(new QueryPlan.AccessPath(QueryPlan.Kind.BITMAP, null,
+                    "bitmaps for " + query.describeBitmapCriteria(),
+                    select(query.filters(), query.tag()).cardinality()));
+        }
+        for (String keyword : query.keywords().stream().filter(TextIndex::canLookUp).toList()) {
+            paths.add(new QueryPlan.AccessPath(QueryPlan.Kind.KEYWORD, keyword,
+                    "text index for \"" + keyword + "\"", textIndex.estimate(keyword)));
+        }
+        if (query.hasDateRange()) {
+            paths.add(new QueryPlan.AccessPath(QueryPlan.Kind.DATE_RANGE, null,
+                    "date index for tasks " + query.describeDateRange(),
+                    dateIndex.countOverlapping(query.rangeStart(), query.rangeEnd())));
+        }
+        if (paths.isEmpty()) {
+            paths.add(new QueryPlan.AccessPath(QueryPlan.Kind.BITMAP, null, "scan of every task", tasks.size()));
+        }
+        paths.sort(Comparator.comparingInt(QueryPlan.AccessPath::estimatedTasks));
+
+        QueryPlan.AccessPath chosen = paths.get(0);
+        List<String> residualChecks = new ArrayList<>();
+        if (chosen.kind() != QueryPlan.Kind.BITMAP && query.hasBitmapCriteria()) {
+            residualChecks.add(query.describeBitmapCriteria());
+        }
+        if (chosen.kind() != QueryPlan.Kind.DATE_RANGE && query.hasDateRange()) {
+            residualChecks.add(query.describeDateRange());
+        }
+        for (String keyword : query.keywords()) {
+            if (chosen.kind() != QueryPlan.Kind.KEYWORD || !keyword.equals(chosen.keyword())) {
+                residualChecks.add("contains \"" + keyword + "\"");
+            }
+        }
+        return new QueryPlan(List.copyOf(paths), List.copyOf(residualChecks));
+    }
+
+    /**
+     * Returns the tasks an access path yields for a query, in list order. Callers hold a lock.
+     */
+    private List<Task> candidates(QueryPlan.AccessPath path, TaskQuery query) {
+        return switch (path.kind()) {
+        case KEYWORD -> textIndex.find(path.keyword());
+        case DATE_RANGE -> dateIndex.findOverlapping(query.rangeStart(), query.rangeEnd());
+        case BITMAP -> {
+            if (!query.hasBitmapCriteria()) {
+                yield tasks;
+            }
+            BitSet selected = select(query.filters(), query.tag());
+            List<Task> selectedTasks = new ArrayList<>(selected.cardinality());
+            for (int bit = selected.nextSetBit(0); bit >= 0; bit = selected.nextSetBit(bit + 1)) {
+                selectedTasks.add(tasks.getById(bit + 1));
+            }
+            yield selectedTasks;
+        }
+        };
+    }
+
+    /**
+     * Builds an index from the current tasks the first time it is queried, under the write lock.
+     * Once built, the index is kept up to date by every change.
+     */
+    private void buildOnFirstUse(BooleanSupplier isBuilt, Runnable build) {
+        if (read(isBuilt::getAsBoolean)) {
+            return;
+        }
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (!isBuilt.getAsBoolean()) {
+                build.run();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private BitSet select(Set<TaskFilter> filters, String tag) {
+        BitSet selected = bitmaps.select(filters);
+        if (tag != null) {
+            selected.and(tagIndex.bits(tag));
+        }
+        return selected;
+    }
+
+    private <T> T read(Supplier<T> query) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return query.get();
+        } finally {
+            readLock.unlock();
         }
-        return taskStrings;
     }
 }
@@ -1,5 +1,7 @@
 package buddy.task;
 
+import java.util.Arrays;
+
 import buddy.BuddyException;
 import buddy.Constants;
 
@@ -9,64 +11,156 @@ import buddy.Constants;
 public class TaskParser {
     /**
      * Parses a task from a file format string.
+     * Fields are located by scanning for delimiters directly, and a field is only copied out
+     * of the line when it is needed to build the task. Lines written before tasks had saved IDs
+     * have no ID field, and their tasks are given IDs when they are added to a list.
      *
-     * @param line the line from the file in format: "type | isDone | description | ..."
+     * @param line the line from the file in format: "[id | ]type | isDone | description | ..."
      * @return the parsed task
      * @throws BuddyException if the line format is invalid
      */
     public static Task parseFromFile(String line) throws BuddyException {
-        String[] parts = line.split(TaskFormat.DELIMITER_REGEX);
+        Fields parts = new Fields(line);
+        int id = parseOptionalId(parts);
         requirePartsLength(parts, Constants.MIN_TASK_PARTS, "Invalid file format");
 
         // Extract common fields
-        String type = parts[0];
-        boolean isDone = parseDoneFlag(parts[1]);
-        String description = parts[2];
+        boolean isDone = parseDoneFlag(parts);
+        String description = parts.get(2);
         String tag = getOptionalTag(parts, Constants.MIN_TASK_PARTS);
 
         // Create task based on type
-        Task task = switch (type) {
-        case TaskFormat.TYPE_TODO -> new Todo(description, tag);
-        case TaskFormat.TYPE_DEADLINE -> {
+        Task task;
+        if (parts.equalsAt(0, TaskFormat.TYPE_TODO)) {
+            task = new Todo(description, tag);
+        } else if (parts.equalsAt(0, TaskFormat.TYPE_DEADLINE)) {
             requirePartsLength(parts, Constants.MIN_DEADLINE_PARTS, "Invalid deadline format");
-            yield new Deadline(description, parts[3], getOptionalTag(parts, Constants.MIN_DEADLINE_PARTS));
-        }
-        case TaskFormat.TYPE_EVENT -> {
+            task = new Deadline(description, parts.get(3), getOptionalTag(parts, Constants.MIN_DEADLINE_PARTS));
+        } else if (parts.equalsAt(0, TaskFormat.TYPE_EVENT)) {
             requirePartsLength(parts, Constants.MIN_EVENT_PARTS, "Invalid event format");
-            yield new Event(description, parts[3], parts[4], getOptionalTag(parts, Constants.MIN_EVENT_PARTS));
+            task = new Event(description, parts.get(3), parts.get(4),
+                    getOptionalTag(parts, Constants.MIN_EVENT_PARTS));
+        } else {
+            throw new BuddyException("Unknown task type: " + parts.get(0));
         }
-        default -> throw new BuddyException("Unknown task type: " + type);
-        };
 
-        // Set completion status
-        if (isDone) {
-            task.markAsDone();
+        task.setDone(isDone);
+        if (id > 0) {
+            task.setId(id);
         }
 
         return task;
     }
 
-    private static void requirePartsLength(String[] parts, int minLength, String errorMessage)
+    private static void requirePartsLength(Fields parts, int minLength, String errorMessage)
             throws BuddyException {
-        if (parts.length < minLength) {
+        if (parts.size() < minLength) {
             throw new BuddyException(errorMessage);
         }
     }
 
-    private static boolean parseDoneFlag(String flag) throws BuddyException {
-        if (TaskFormat.DONE_FLAG_TRUE.equals(flag)) {
+    /**
+     * Reads the ID field if the line starts with one, as only an ID starts with a digit, and skips past it.
+     * Returns 0 if the line has no ID.
+     */
+    private static int parseOptionalId(Fields parts) throws BuddyException {
+        if (parts.size() == 0 || !parts.startsWithDigit(0)) {
+            return 0;
+        }
+        String field = parts.get(0);
+        try {
+            int id = Integer.parseInt(field);
+            if (id <= 0) {
+                throw new BuddyException("Invalid task ID: " + field);
+            }
+            parts.skipFirst();
+            return id;
+        } catch (NumberFormatException e) {
+            throw new BuddyException("Invalid task ID: " + field);
+        }
+    }
+
+    private static boolean parseDoneFlag(Fields parts) throws BuddyException {
+        if (parts.equalsAt(1, TaskFormat.DONE_FLAG_TRUE)) {
             return true;
         }
-        if (TaskFormat.DONE_FLAG_FALSE.equals(flag)) {
+        if (parts.equalsAt(1, TaskFormat.DONE_FLAG_FALSE)) {
             return false;
         }
-        throw new BuddyException("Invalid done flag: " + flag);
+        throw new BuddyException("Invalid done flag: " + parts.get(1));
     }
 
-    private static String getOptionalTag(String[] parts, int minParts) {
-        if (parts.length <= minParts) {
+    private static String getOptionalTag(Fields parts, int minParts) {
+        if (parts.size() <= minParts) {
             return null;
         }
-        return parts[parts.length - 1].trim();
+        return parts.get(parts.size() - 1).trim();
+    }
+
+    /**
+     * The fields of a line split on the task delimiter, kept as offsets into the line.
+     * Splitting follows {@link String#split(String)}: trailing empty fields are dropped,
+     * and a line without any delimiter is a single field.
+     */
+    private static final class Fields {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private final String line;
+        private int[] starts = new int[INITIAL_CAPACITY];
+        private int[] ends = new int[INITIAL_CAPACITY];
+        private int count;
+        private int first;
+
+        Fields(String line) {
+            this.line = line;
+            int start = 0;
+            int delimiterIndex = line.indexOf(TaskFormat.DELIMITER);
+            while (delimiterIndex != -1) {
+                add(start, delimiterIndex);
+                start = delimiterIndex + TaskFormat.DELIMITER.length();
+                delimiterIndex = line.indexOf(TaskFormat.DELIMITER, start);
+            }
+            add(start, line.length());
+            if (count > 1) {
+                while (count > 0 && starts[count - 1] == ends[count - 1]) {
+                    count--;
+                }
+            }
+        }
+
+        int size() {
+            return count - first;
+        }
+
+        String get(int index) {
+            return line.substring(starts[first + index], ends[first + index]);
+        }
+
+        boolean equalsAt(int index, String value) {
+            int start = starts[first + index];
+            return ends[first + index] - start == value.length() && line.startsWith(value, start);
+        }
+
+        boolean startsWithDigit(int index) {
+            int start = starts[first + index];
+            return start < ends[first + index] && Character.isDigit(line.charAt(start));
+        }
+
+        /**
+         * Drops the first field, so the fields after it are numbered from 0.
+         */
+        void skipFirst() {
+            first++;
+        }
+
+        private void add(int start, int end) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
     }
 }
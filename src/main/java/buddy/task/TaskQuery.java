@@ -0,0 +1,171 @@
+package buddy.task;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A find query: every criterion it holds must match. Type filters match a task of any of the types,
+ * and the times are one range that a deadline's due time or an event's span must overlap.
+ * Date criteria cover whole days, from the start of the first day to the last moment of the last.
+ *
+ * @param tag the normalised tag to match, or null to match any task
+ * @param filters the status and type filters
+ * @param keywords the lowercased text that the description must contain, each matched separately
+ * @param from the start of the time range, inclusive, or null if it is open at the start
+ * @param to the end of the time range, inclusive, or null if it is open at the end
+ */
+public record TaskQuery(String tag, Set<TaskFilter> filters, List<String> keywords, LocalDateTime from,
+        LocalDateTime to) {
+
+    /**
+     * Returns whether the query limits tasks by time.
+     *
+     * @return true if the query has a time range
+     */
+    public boolean hasDateRange() {
+        return from != null || to != null;
+    }
+
+    /**
+     * Returns whether the query narrows tasks by tag or filter, which the task list answers from bitmaps.
+     *
+     * @return true if the query has a tag or any filter
+     */
+    public boolean hasBitmapCriteria() {
+        return tag != null || !filters.isEmpty();
+    }
+
+    /**
+     * Checks a task against every criterion, cheapest first.
+     *
+     * @param task the task to check
+     * @return true if the task matches the query
+     */
+    public boolean matches(Task task) {
+        if (tag != null && !tag.equalsIgnoreCase(task.getTag())) {
+            return false;
+        }
+        if (!matchesFilters(task) || !matchesDates(task)) {
+            return false;
+        }
+        if (!keywords.isEmpty()) {
+            String description = task.getDescription().toLowerCase();
+            for (String keyword : keywords) {
+                if (!description.contains(keyword)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the start of the time range, or the earliest time if it is open at the start.
+     *
+     * @return the start of the range
+     */
+    public LocalDateTime rangeStart() {
+        return from == null ? LocalDateTime.MIN : from;
+    }
+
+    /**
+     * Returns the end of the time range, or the latest time if it is open at the end.
+     *
+     * @return the end of the range
+     */
+    public LocalDateTime rangeEnd() {
+        return to == null ? LocalDateTime.MAX : to;
+    }
+
+    /**
+     * Describes the tag and filters, as in "#work undone".
+     *
+     * @return the description, or an empty string if there are none
+     */
+    public String describeBitmapCriteria() {
+        List<String> parts = new ArrayList<>();
+        if (tag != null) {
+            parts.add("#" + tag);
+        }
+        for (TaskFilter filter : filters) {
+            parts.add(filter.name().toLowerCase());
+        }
+        return String.join(" ", parts);
+    }
+
+    /**
+     * Describes the time range, as in "on 2026-03-01" or "on or before 2026-02-28".
+     * Bounds at the start or end of a day are shown as the date alone.
+     *
+     * @return the description, or an empty string if there is no time range
+     */
+    public String describeDateRange() {
+        if (from == null && to == null) {
+            return "";
+        } else if (from == null) {
+            return "on or before " + describeTime(to);
+        } else if (to == null) {
+            return "on or after " + describeTime(from);
+        } else if (from.toLocalTime().equals(LocalTime.MIDNIGHT) && to.toLocalTime().equals(LocalTime.MAX)
+                && from.toLocalDate().equals(to.toLocalDate())) {
+            return "on " + from.toLocalDate();
+        }
+        return "from " + describeTime(from) + " to " + describeTime(to);
+    }
+
+    /**
+     * Describes the whole query, as in "#work undone on or before 2026-02-28 "report"".
+     *
+     * @return the description
+     */
+    public String describe() {
+        List<String> parts = new ArrayList<>();
+        if (hasBitmapCriteria()) {
+            parts.add(describeBitmapCriteria());
+        }
+        if (hasDateRange()) {
+            parts.add(describeDateRange());
+        }
+        for (String keyword : keywords) {
+            parts.add("\"" + keyword + "\"");
+        }
+        return String.join(" ", parts);
+    }
+
+    private static String describeTime(LocalDateTime time) {
+        LocalTime timeOfDay = time.toLocalTime();
+        if (timeOfDay.equals(LocalTime.MIDNIGHT) || timeOfDay.equals(LocalTime.MAX)) {
+            return time.toLocalDate().toString();
+        }
+        return DateTimeUtil.formatDisplayDateTime(time);
+    }
+
+    private boolean matchesFilters(Task task) {
+        if ((filters.contains(TaskFilter.DONE) && !task.isDone())
+                || (filters.contains(TaskFilter.UNDONE) && task.isDone())) {
+            return false;
+        }
+        boolean hasTypeFilter = filters.contains(TaskFilter.TODOS) || filters.contains(TaskFilter.DEADLINES)
+                || filters.contains(TaskFilter.EVENTS);
+        return !hasTypeFilter
+                || (filters.contains(TaskFilter.TODOS) && task instanceof Todo)
+                || (filters.contains(TaskFilter.DEADLINES) && task instanceof Deadline)
+                || (filters.contains(TaskFilter.EVENTS) && task instanceof Event);
+    }
+
+    private boolean matchesDates(Task task) {
+        if (!hasDateRange()) {
+            return true;
+        }
+        if (task instanceof Deadline deadline) {
+            return !deadline.getDateTime().isBefore(rangeStart()) && !deadline.getDateTime().isAfter(rangeEnd());
+        }
+        if (task instanceof Event event) {
+            return !event.getEndTime().isBefore(rangeStart()) && !event.getStartTime().isAfter(rangeEnd());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,33 @@
+package buddy.task;
+
+import java.util.Map;
+
+/**
+ * A summary of a task list, as reported by the stats command.
+ *
+ * @param todoCount the number of todos
+ * @param deadlineCount the number of deadlines
+ * @param eventCount the number of events
+ * @param doneCount the number of tasks that are done
+ * @param overdueDeadlineCount the number of deadlines that are not done and are past due
+ * @param eventsThisWeekCount the number of events that overlap the current week
+ * @param tagCounts the number of tasks with each tag, keyed by the tag as first written
+ */
+public record TaskStats(
+        int todoCount,
+        int deadlineCount,
+        int eventCount,
+        int doneCount,
+        int overdueDeadlineCount,
+        int eventsThisWeekCount,
+        Map<String, Integer> tagCounts) {
+
+    /**
+     * Returns the number of tasks in the list.
+     *
+     * @return the total number of tasks
+     */
+    public int totalCount() {
+        return todoCount + deadlineCount + eventCount;
+    }
+}
@@ -0,0 +1,461 @@
+package buddy.task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * TaskTrie is an immutable list of tasks stored in a 32-way trie indexed by slot. Tasks are appended to the next
+ * slot, so slots are in list order. Deleting a task leaves its slot empty, and every node counts the tasks below it,
+ * so a list position is found by walking down the counts. A subtree whose tasks have all been deleted is dropped,
+ * and iteration skips over it.
+ * Changes copy only the path to the affected slot and return a new trie,
+ * so an existing trie can be read from any thread while the task list moves on.
+ *
+ * <p>Once most slots are empty the trie is rebuilt with the tasks packed into the first slots. A task keeps its ID
+ * when that happens: the trie records the IDs of the packed tasks, and every task appended after the rebuild
+ * is as many slots further on than the one before as its ID is higher. A task loaded with a saved ID
+ * leaves the slots of the IDs before it that were deleted in an earlier session empty.
+ */
+final class TaskTrie extends AbstractList<Task> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    /** The fewest slots a trie must have before it is rebuilt, so a small list is not rebuilt on every delete. */
+    private static final int MIN_SLOTS_TO_COMPACT = WIDTH * WIDTH;
+
+    static final TaskTrie EMPTY = new TaskTrie(new Node(new Object[WIDTH], 0), 0, 0, new int[0], 1);
+
+    private final Node root;
+    /** The number of bits of a slot consumed below the root's children. */
+    private final int shift;
+    private final int slotCount;
+    /** The IDs of the tasks packed into the first slots by the last rebuild, in slot order. */
+    private final int[] packedIds;
+    /** The ID of the task in the first slot after the packed ones. */
+    private final int firstAppendedId;
+
+    private TaskTrie(Node root, int shift, int slotCount, int[] packedIds, int firstAppendedId) {
+        this.root = root;
+        this.shift = shift;
+        this.slotCount = slotCount;
+        this.packedIds = packedIds;
+        this.firstAppendedId = firstAppendedId;
+    }
+
+    /**
+     * Returns the lowest ID the next appended task may have: one more than the ID of the last slot.
+     */
+    int nextId() {
+        return firstAppendedId + slotCount - packedIds.length;
+    }
+
+    /**
+     * Returns a trie with the task stored after every existing slot. The task's ID must be at least
+     * {@link #nextId()}, and the slots of any IDs it skips are left empty.
+     */
+    TaskTrie append(Task task) {
+        assert task.getId() >= nextId() : "Appended task should have an ID after every other task's";
+        int slot = slotCount + (task.getId() - nextId());
+        Node newRoot = root;
+        int newShift = shift;
+        while (slot >= 1L << (newShift + BITS)) {
+            // The trie is full, so grow it by one level with the old root as the first child
+            Object[] children = new Object[WIDTH];
+            children[0] = newRoot;
+            newRoot = new Node(children, newRoot.count);
+            newShift += BITS;
+        }
+        return new TaskTrie(set(newRoot, newShift, slot, task), newShift, slot + 1, packedIds, firstAppendedId);
+    }
+
+    /**
+     * Returns a trie without the task at a 0-based list position.
+     */
+    TaskTrie removeAt(int position) {
+        return withRoot(set(root, shift, slotAt(position), null)).compactIfSparse();
+    }
+
+    /**
+     * Returns a trie without the tasks at the given 0-based list positions, which must be sorted and distinct.
+     * The positions are cleared in one pass that copies each node on their paths once.
+     */
+    TaskTrie removeAll(int[] positions) {
+        int[] slots = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            assert i == 0 || positions[i - 1] < positions[i] : "Positions should be sorted and distinct";
+            slots[i] = slotAt(positions[i]);
+        }
+        return withRoot(clear(root, shift, slots, 0, slots.length)).compactIfSparse();
+    }
+
+    /**
+     * Returns the task at a 0-based list position.
+     */
+    @Override
+    public Task get(int position) {
+        int slot = slotAt(position);
+        return (Task) leafFor(slot).children[slot & MASK];
+    }
+
+    @Override
+    public int size() {
+        return root.count;
+    }
+
+    /**
+     * Returns the number of slots in use, including those emptied by deletes since the last rebuild.
+     */
+    int slotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Returns the task with the given ID, or null if no task in the trie has it.
+     */
+    Task getById(int id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return null;
+        }
+        // The path to the slot of a deleted task may have been dropped
+        Node node = root;
+        for (int level = shift; level > 0 && node != null; level -= BITS) {
+            node = (Node) node.children[(slot >>> level) & MASK];
+        }
+        return node == null ? null : (Task) node.children[slot & MASK];
+    }
+
+    /**
+     * Returns the 0-based list position of the task with the given ID, or -1 if no task in the trie has it.
+     */
+    int positionOfId(int id) {
+        return getById(id) == null ? -1 : rank(slotOf(id));
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private final SlotCursor cursor = new SlotCursor(0, slotCount);
+            private int remaining = size();
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Task next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                return cursor.next();
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator that splits the tasks in half at leaf boundaries, so a parallel stream can share out
+     * the trie without copying it. The node counts give the exact size of every part.
+     */
+    @Override
+    public Spliterator<Task> spliterator() {
+        return new SlotSpliterator(0, slotCount, size(), size());
+    }
+
+    /**
+     * Returns the slot of the task with the given ID, or -1 if the ID has no slot in this trie.
+     */
+    private int slotOf(int id) {
+        if (id >= firstAppendedId) {
+            long slot = (long) packedIds.length + id - firstAppendedId;
+            return slot < slotCount ? (int) slot : -1;
+        }
+        int index = Arrays.binarySearch(packedIds, id);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Returns the number of tasks in slots before the given one.
+     */
+    private int rank(int slot) {
+        if (slot >= 1L << (shift + BITS)) {
+            return size();
+        }
+        int position = 0;
+        Node node = root;
+        for (int level = shift; node != null; level -= BITS) {
+            int index = (slot >>> level) & MASK;
+            for (int i = 0; i < index; i++) {
+                position += countOf(node.children[i]);
+            }
+            node = level == 0 ? null : (Node) node.children[index];
+        }
+        return position;
+    }
+
+    /**
+     * Finds the slot holding the task at a 0-based list position by walking down the node counts.
+     */
+    private int slotAt(int position) {
+        Objects.checkIndex(position, size());
+        int slot = 0;
+        int remaining = position;
+        Node node = root;
+        for (int level = shift; level >= 0; level -= BITS) {
+            int index = 0;
+            while (countOf(node.children[index]) <= remaining) {
+                remaining -= countOf(node.children[index]);
+                index++;
+            }
+            slot |= index << level;
+            if (level > 0) {
+                node = (Node) node.children[index];
+            }
+        }
+        return slot;
+    }
+
+    private Node leafFor(int slot) {
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.children[(slot >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private TaskTrie withRoot(Node newRoot) {
+        return new TaskTrie(newRoot, shift, slotCount, packedIds, firstAppendedId);
+    }
+
+    /**
+     * Returns this trie, or a rebuilt one with the tasks packed into the first slots if most slots are empty.
+     * A rebuild copies every task, but needs as many deletes again before the next one, so deletes stay cheap.
+     */
+    private TaskTrie compactIfSparse() {
+        if (slotCount < MIN_SLOTS_TO_COMPACT || size() * 2 >= slotCount) {
+            return this;
+        }
+        Object[] tasks = toArray();
+        int[] ids = new int[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            ids[i] = ((Task) tasks[i]).getId();
+        }
+
+        // Fill leaves from the packed tasks, then group each level's nodes into parents until one root is left
+        Node[] nodes = new Node[Math.max(1, (tasks.length + MASK) / WIDTH)];
+        for (int i = 0; i < nodes.length; i++) {
+            Object[] children = new Object[WIDTH];
+            int from = i * WIDTH;
+            int count = Math.min(WIDTH, tasks.length - from);
+            System.arraycopy(tasks, from, children, 0, Math.max(0, count));
+            nodes[i] = new Node(children, Math.max(0, count));
+        }
+        int newShift = 0;
+        while (nodes.length > 1) {
+            Node[] parents = new Node[(nodes.length + MASK) / WIDTH];
+            for (int i = 0; i < parents.length; i++) {
+                Object[] children = new Object[WIDTH];
+                int count = 0;
+                for (int j = 0; j < WIDTH && i * WIDTH + j < nodes.length; j++) {
+                    children[j] = nodes[i * WIDTH + j];
+                    count += nodes[i * WIDTH + j].count;
+                }
+                parents[i] = new Node(children, count);
+            }
+            nodes = parents;
+            newShift += BITS;
+        }
+        return new TaskTrie(nodes[0], newShift, tasks.length, ids, nextId());
+    }
+
+    /**
+     * Returns a copy of the node with the slot set to the task, or emptied if the task is null.
+     */
+    private static Node set(Node node, int level, int slot, Task task) {
+        Object[] children = node.children.clone();
+        int index = (slot >>> level) & MASK;
+        int oldCount = countOf(children[index]);
+        if (level == 0) {
+            children[index] = task;
+        } else {
+            Node child = children[index] == null ? new Node(new Object[WIDTH], 0) : (Node) children[index];
+            children[index] = pruned(set(child, level - BITS, slot, task));
+        }
+        return new Node(children, node.count - oldCount + countOf(children[index]));
+    }
+
+    /**
+     * Returns a copy of the node with the sorted slots from index from to index to emptied.
+     * The slots all lie below this node, so they are grouped by child and each child is copied once.
+     */
+    private static Node clear(Node node, int level, int[] slots, int from, int to) {
+        Object[] children = node.children.clone();
+        int count = node.count;
+        int start = from;
+        while (start < to) {
+            int index = (slots[start] >>> level) & MASK;
+            int end = start + 1;
+            while (end < to && ((slots[end] >>> level) & MASK) == index) {
+                end++;
+            }
+            count -= countOf(children[index]);
+            if (level == 0) {
+                children[index] = null;
+            } else {
+                children[index] = pruned(clear((Node) children[index], level - BITS, slots, start, end));
+            }
+            count += countOf(children[index]);
+            start = end;
+        }
+        return new Node(children, count);
+    }
+
+    /**
+     * Returns the first occupied slot at or after the given one below the node, or -1 if there is none.
+     * Children that hold no tasks are passed over without being visited.
+     */
+    private static int nextOccupied(Node node, int level, int slot) {
+        int start = (slot >>> level) & MASK;
+        for (int index = start; index < WIDTH; index++) {
+            Object child = node.children[index];
+            if (countOf(child) == 0) {
+                continue;
+            }
+            // Past the first child, the search starts at the child's first slot
+            int childSlot = index == start ? slot : ((slot >>> level) + index - start) << level;
+            if (level == 0) {
+                return childSlot;
+            }
+            int found = nextOccupied((Node) child, level - BITS, childSlot);
+            if (found >= 0) {
+                return found;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the node, or null once it holds no tasks, so the subtrees of deleted tasks are freed.
+     */
+    private static Node pruned(Node node) {
+        return node.count == 0 ? null : node;
+    }
+
+    private static int countOf(Object child) {
+        if (child == null) {
+            return 0;
+        }
+        return child instanceof Node node ? node.count : 1;
+    }
+
+    /**
+     * Walks the tasks in a range of slots in order. It reads a leaf at a time,
+     * and jumps over empty subtrees to the next occupied slot whenever it reaches the end of a leaf.
+     */
+    private final class SlotCursor {
+        private int nextSlot;
+        private final int endSlot;
+        private Object[] leaf;
+
+        private SlotCursor(int nextSlot, int endSlot) {
+            this.nextSlot = nextSlot;
+            this.endSlot = endSlot;
+        }
+
+        /**
+         * Returns the next task in the range, or null if there is none.
+         */
+        private Task next() {
+            while (nextSlot < endSlot) {
+                if (leaf == null || (nextSlot & MASK) == 0) {
+                    int slot = nextOccupied(root, shift, nextSlot);
+                    if (slot < 0 || slot >= endSlot) {
+                        nextSlot = endSlot;
+                        return null;
+                    }
+                    nextSlot = slot;
+                    leaf = leafFor(slot).children;
+                }
+                Task task = (Task) leaf[nextSlot & MASK];
+                nextSlot++;
+                if (task != null) {
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        private void skipTo(int slot) {
+            nextSlot = slot;
+            leaf = null;
+        }
+    }
+
+    /**
+     * Splits the tasks in a range of slots, keeping the exact number left in the range.
+     */
+    private final class SlotSpliterator implements Spliterator<Task> {
+        private final SlotCursor cursor;
+        /** The list position just after the last task in the range. */
+        private final int endPosition;
+        private int remaining;
+
+        private SlotSpliterator(int nextSlot, int endSlot, int remaining, int endPosition) {
+            this.cursor = new SlotCursor(nextSlot, endSlot);
+            this.remaining = remaining;
+            this.endPosition = endPosition;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            action.accept(cursor.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<Task> trySplit() {
+            if (remaining < 2 * WIDTH) {
+                return null;
+            }
+            // Split at the start of the leaf holding the middle task, so each half holds about as many tasks
+            int startPosition = endPosition - remaining;
+            int middle = slotAt(startPosition + remaining / 2) & ~MASK;
+            if (middle <= cursor.nextSlot) {
+                return null;
+            }
+            int prefixSize = rank(middle) - startPosition;
+            SlotSpliterator prefix =
+                    new SlotSpliterator(cursor.nextSlot, middle, prefixSize, startPosition + prefixSize);
+            cursor.skipTo(middle);
+            remaining -= prefixSize;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.SIZED
+                    | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * A trie node and the number of tasks below it. A leaf's children are tasks; other nodes' children are nodes.
+     */
+    private record Node(Object[] children, int count) {
+    }
+}
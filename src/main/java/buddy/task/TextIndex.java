@@ -0,0 +1,422 @@
+package buddy.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * TextIndex is a trigram index over task descriptions for case-insensitive substring search.
+ * Each description is lowercased once when its task is added, and every three-character window of it
+ * is posted under that trigram. A search only verifies the tasks posted under the query's rarest trigram.
+ */
+class TextIndex {
+    private static final int GRAM_LENGTH = 3;
+    /** The most trigrams of a term one edit can break: a swap touches every trigram overlapping either character. */
+    private static final int GRAMS_PER_EDIT = GRAM_LENGTH + 1;
+
+    /** Indexed tasks by ID, in list order. */
+    private final Map<Integer, Entry> entries = new TreeMap<>();
+    private final GramTable postings = new GramTable();
+
+    /**
+     * Indexes a task's description.
+     */
+    void add(Task task) {
+        Entry entry = new Entry(task, task.getDescription().toLowerCase());
+        entries.put(task.getId(), entry);
+        for (int i = 0; i + GRAM_LENGTH <= entry.text.length(); i++) {
+            postings.getOrCreate(gramAt(entry.text, i)).add(entry);
+        }
+    }
+
+    /**
+     * Removes a task's description from the index.
+     */
+    void remove(Task task) {
+        Entry entry = entries.remove(task.getId());
+        if (entry == null) {
+            return;
+        }
+        entry.isRemoved = true;
+        // Each postings list counts the entry as removed once, so a trigram repeated in the text is visited once
+        long[] grams = new long[Math.max(0, entry.text.length() - GRAM_LENGTH + 1)];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = gramAt(entry.text, i);
+        }
+        Arrays.sort(grams);
+        for (int i = 0; i < grams.length; i++) {
+            Postings gramPostings = postings.get(grams[i]);
+            if (gramPostings != null && (i == 0 || grams[i] != grams[i - 1])) {
+                gramPostings.remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks whose description contains the keyword, ignoring case, in list order.
+     */
+    List<Task> find(String keyword) {
+        String needle = keyword.toLowerCase();
+        List<Task> matches = new ArrayList<>();
+        if (needle.length() < GRAM_LENGTH) {
+            // Too short to have a trigram, so check the lowercased descriptions directly
+            for (Entry entry : entries.values()) {
+                if (entry.text.contains(needle)) {
+                    matches.add(entry.task);
+                }
+            }
+            return matches;
+        }
+
+        Postings rarest = null;
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            Postings gramPostings = postings.get(gramAt(needle, i));
+            if (gramPostings == null || gramPostings.liveCount() == 0) {
+                return matches; // No description has this trigram
+            }
+            if (rarest == null || gramPostings.liveCount() < rarest.liveCount()) {
+                rarest = gramPostings;
+            }
+        }
+        for (int i = 0; i < rarest.size; i++) {
+            Entry entry = rarest.entries[i];
+            if (!entry.isRemoved && entry.text.contains(needle)) {
+                matches.add(entry.task);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns whether the keyword is long enough to have a trigram, so a search for it can use the postings.
+     */
+    static boolean canLookUp(String keyword) {
+        return keyword.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Returns an upper bound on the number of tasks containing the keyword: the number posted under
+     * its rarest trigram, or every task if it is too short to have one.
+     */
+    int estimate(String keyword) {
+        String needle = keyword.toLowerCase();
+        if (needle.length() < GRAM_LENGTH) {
+            return entries.size();
+        }
+        int estimate = entries.size();
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            Postings gramPostings = postings.get(gramAt(needle, i));
+            estimate = Math.min(estimate, gramPostings == null ? 0 : gramPostings.liveCount());
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns up to limit tasks whose description contains text close to the term, closest first.
+     * Closeness is the fewest single-character edits, counting a swap of neighbouring characters as one,
+     * that turn the term into part of the description;
+     * ties go to the description sharing more of the term's trigrams, then to the earlier task.
+     * At most one edit per four characters of the term is allowed.
+     *
+     * <p>Only descriptions sharing a trigram with the term are considered. They are counted by merging the
+     * term's postings, and each edit breaks at most four of the term's trigrams, so a description sharing
+     * fewer trigrams cannot be closer than a bound. Descriptions are scored most-shared first and the search
+     * stops once that bound is worse than every match kept, so most candidates are never scored.
+     */
+    List<Task> findSimilar(String term, int limit) {
+        String needle = term.toLowerCase();
+        if (needle.length() < GRAM_LENGTH) {
+            List<Task> matches = find(needle);
+            return matches.subList(0, Math.min(limit, matches.size()));
+        }
+        int maxEdits = Math.max(1, needle.length() / 4);
+
+        List<Postings> gramPostings = new ArrayList<>();
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            long gram = gramAt(needle, i);
+            Postings found = postings.get(gram);
+            if (grams.add(gram) && found != null && found.liveCount() > 0) {
+                gramPostings.add(found);
+            }
+        }
+        int gramCount = grams.size();
+        List<List<Entry>> entriesBySharedGrams = countSharedGrams(gramPostings, gramCount);
+
+        // The heap holds the best matches so far with the worst on top, so it never grows past the limit
+        Comparator<SimilarMatch> closestFirst = Comparator.comparingInt(SimilarMatch::edits)
+                .thenComparing(Comparator.comparingInt(SimilarMatch::sharedGrams).reversed())
+                .thenComparingInt(match -> match.entry().task.getId());
+        PriorityQueue<SimilarMatch> best = new PriorityQueue<>(closestFirst.reversed());
+        int[][] columns = new int[3][needle.length() + 1];
+        for (int shared = gramCount; shared > 0; shared--) {
+            int minEdits = (gramCount - shared + GRAMS_PER_EDIT - 1) / GRAMS_PER_EDIT;
+            // Every match kept so far shares more trigrams, so once none is worse in edits the rest cannot rank higher
+            if (minEdits > maxEdits || (best.size() == limit && minEdits >= best.peek().edits())) {
+                break;
+            }
+            for (Entry entry : entriesBySharedGrams.get(shared)) {
+                // Later entries in this group share no more trigrams, need as many edits and come later in the list
+                if (best.size() == limit && best.peek().edits() <= minEdits && best.peek().sharedGrams() >= shared) {
+                    break;
+                }
+                int edits = substringEditDistance(needle, entry.text, columns);
+                if (edits > maxEdits) {
+                    continue;
+                }
+                best.offer(new SimilarMatch(entry, edits, shared));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<SimilarMatch> ranked = new ArrayList<>(best);
+        ranked.sort(closestFirst);
+        List<Task> matches = new ArrayList<>(ranked.size());
+        for (SimilarMatch match : ranked) {
+            matches.add(match.entry().task);
+        }
+        return matches;
+    }
+
+    /**
+     * Merges postings sorted by ID to group the entries under them by how many of the postings they appear in.
+     * Entries of removed tasks that have not been compacted away yet are passed over.
+     */
+    private static List<List<Entry>> countSharedGrams(List<Postings> gramPostings, int gramCount) {
+        List<List<Entry>> entriesByCount = new ArrayList<>(gramCount + 1);
+        for (int i = 0; i <= gramCount; i++) {
+            entriesByCount.add(new ArrayList<>());
+        }
+        int[] positions = new int[gramPostings.size()];
+        while (true) {
+            Entry next = null;
+            for (int i = 0; i < positions.length; i++) {
+                Postings list = gramPostings.get(i);
+                if (positions[i] < list.size
+                        && (next == null || list.entries[positions[i]].task.getId() < next.task.getId())) {
+                    next = list.entries[positions[i]];
+                }
+            }
+            if (next == null) {
+                return entriesByCount;
+            }
+            int count = 0;
+            for (int i = 0; i < positions.length; i++) {
+                Postings list = gramPostings.get(i);
+                if (positions[i] < list.size && list.entries[positions[i]] == next) {
+                    positions[i]++;
+                    count++;
+                }
+            }
+            if (!next.isRemoved) {
+                entriesByCount.get(count).add(next);
+            }
+        }
+    }
+
+    /**
+     * Returns the fewest insertions, deletions, substitutions and swaps of neighbouring characters that turn
+     * the pattern into some substring of the text. The table is filled one text character at a time,
+     * keeping only the last three columns in the given arrays.
+     */
+    private static int substringEditDistance(String pattern, String text, int[][] columns) {
+        int[] beforePrevious = columns[0];
+        int[] previous = columns[1];
+        int[] current = columns[2];
+        for (int i = 0; i <= pattern.length(); i++) {
+            previous[i] = i;
+        }
+        int best = pattern.length();
+        for (int j = 0; j < text.length(); j++) {
+            // A match may start anywhere in the text, so the empty pattern prefix always costs nothing
+            current[0] = 0;
+            char textChar = text.charAt(j);
+            for (int i = 1; i <= pattern.length(); i++) {
+                int edits = Math.min(previous[i - 1] + (pattern.charAt(i - 1) == textChar ? 0 : 1),
+                        Math.min(previous[i], current[i - 1]) + 1);
+                if (i > 1 && j > 0 && pattern.charAt(i - 1) == text.charAt(j - 1)
+                        && pattern.charAt(i - 2) == textChar) {
+                    edits = Math.min(edits, beforePrevious[i - 2] + 1);
+                }
+                current[i] = edits;
+            }
+            best = Math.min(best, current[pattern.length()]);
+            int[] oldest = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = oldest;
+        }
+        return best;
+    }
+
+    private static long gramAt(String text, int index) {
+        return (long) text.charAt(index) << 32 | (long) text.charAt(index + 1) << 16 | text.charAt(index + 2);
+    }
+
+    /**
+     * A task and its lowercased description. It is marked removed when its task is, and stays in the postings
+     * it was posted under until they are compacted.
+     */
+    private static final class Entry {
+        private final Task task;
+        private final String text;
+        private boolean isRemoved;
+
+        private Entry(Task task, String text) {
+            this.task = task;
+            this.text = text;
+        }
+    }
+
+    private record SimilarMatch(Entry entry, int edits, int sharedGrams) {
+    }
+
+    /**
+     * The entries of the tasks that contain one trigram, sorted by ID.
+     * Removing an entry only marks it; the removed entries are dropped in one pass once they make up
+     * half of the list, so deleting many tasks does not shift the list once per task.
+     */
+    private static final class Postings {
+        private Entry[] entries = new Entry[2];
+        private int size;
+        private int removedCount;
+
+        private int liveCount() {
+            return size - removedCount;
+        }
+
+        /**
+         * Adds an entry in ID order, ignoring one already posted. New tasks have the highest ID and are appended;
+         * only a task restored by an undo is inserted further back, or takes the place of its removed entry.
+         */
+        private void add(Entry entry) {
+            if (size > 0 && entries[size - 1] == entry) {
+                return;
+            }
+            int id = entry.task.getId();
+            int position = size;
+            if (size > 0 && entries[size - 1].task.getId() >= id) {
+                position = indexOf(id);
+                if (position >= 0) {
+                    if (entries[position].isRemoved) {
+                        entries[position] = entry;
+                        removedCount--;
+                    }
+                    return;
+                }
+                position = -position - 1;
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            System.arraycopy(entries, position, entries, position + 1, size - position);
+            entries[position] = entry;
+            size++;
+        }
+
+        /**
+         * Accounts for an entry marked removed, compacting the list once removed entries make up half of it.
+         */
+        private void remove(Entry entry) {
+            int position = indexOf(entry.task.getId());
+            if (position < 0 || entries[position] != entry) {
+                return;
+            }
+            removedCount++;
+            if (removedCount * 2 >= size) {
+                compact();
+            }
+        }
+
+        private void compact() {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                if (!entries[i].isRemoved) {
+                    entries[live++] = entries[i];
+                }
+            }
+            Arrays.fill(entries, live, size, null);
+            size = live;
+            removedCount = 0;
+        }
+
+        /**
+         * Returns the position of the entry with the ID, or (-(insertion point) - 1) if there is none.
+         */
+        private int indexOf(int id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = entries[mid].task.getId();
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+    }
+
+    /**
+     * An open-addressing hash table from trigram to postings, so indexing does not box every trigram.
+     * Trigrams are never removed; one left with no postings costs a slot and is skipped by searches.
+     */
+    private static final class GramTable {
+        private long[] grams = new long[1024];
+        private Postings[] values = new Postings[1024];
+        private int size;
+
+        private Postings get(long gram) {
+            int slot = slotOf(gram);
+            return values[slot];
+        }
+
+        private Postings getOrCreate(long gram) {
+            int slot = slotOf(gram);
+            if (values[slot] == null) {
+                grams[slot] = gram;
+                values[slot] = new Postings();
+                if (++size * 2 > grams.length) {
+                    grow();
+                    return get(gram);
+                }
+            }
+            return values[slot];
+        }
+
+        private int slotOf(long gram) {
+            int mask = grams.length - 1;
+            int slot = Long.hashCode(gram * 0x9E3779B97F4A7C15L) & mask;
+            while (values[slot] != null && grams[slot] != gram) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldGrams = grams;
+            Postings[] oldValues = values;
+            grams = new long[oldGrams.length * 2];
+            values = new Postings[oldValues.length * 2];
+            for (int i = 0; i < oldGrams.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = slotOf(oldGrams[i]);
+                    grams[slot] = oldGrams[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
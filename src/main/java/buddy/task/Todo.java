@@ -23,8 +23,10 @@ public class Todo extends Task {
         super(description, tag);
     }
     @Override
-    public String toFileFormat() {
-        return TaskFormat.TYPE_TODO + TaskFormat.DELIMITER + super.toFileFormat() + formatTagForFile();
+    protected void appendFields(StringBuilder sb) {
+        sb.append(TaskFormat.TYPE_TODO).append(TaskFormat.DELIMITER);
+        appendStatusAndDescription(sb);
+        appendTagForFile(sb);
     }
 
     @Override
@@ -0,0 +1,64 @@
+package buddy.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * UpcomingIndex keeps the undone deadlines and events sorted by when they are due:
+ * a deadline by its due time and an event by its start time, with ties in list order.
+ * Tasks leave the index when they are marked done and return when unmarked, so the next few
+ * undone tasks after any time are read off the front of a sorted set rather than sorted on demand.
+ */
+class UpcomingIndex {
+    private static final Comparator<Task> DUE_ORDER =
+            Comparator.comparing(UpcomingIndex::dueTime).thenComparingInt(Task::getId);
+
+    private final TreeSet<Task> tasks = new TreeSet<>(DUE_ORDER);
+
+    /**
+     * Records a task if it has a date and is not done.
+     */
+    void add(Task task) {
+        if (dueTime(task) != null && !task.isDone()) {
+            tasks.add(task);
+        }
+    }
+
+    /**
+     * Removes a task, if it is recorded.
+     */
+    void remove(Task task) {
+        if (dueTime(task) != null) {
+            tasks.remove(task);
+        }
+    }
+
+    /**
+     * Returns up to limit undone tasks due at or after the given time, soonest first.
+     */
+    List<Task> findNext(LocalDateTime from, int limit) {
+        List<Task> upcoming = new ArrayList<>(Math.min(limit, tasks.size()));
+        // A probe due at the given time with ID 0 sorts before every real task due then
+        Task probe = new Deadline("", from, null);
+        for (Task task : tasks.tailSet(probe, true)) {
+            if (upcoming.size() == limit) {
+                break;
+            }
+            upcoming.add(task);
+        }
+        return upcoming;
+    }
+
+    private static LocalDateTime dueTime(Task task) {
+        if (task instanceof Deadline deadline) {
+            return deadline.getDateTime();
+        }
+        if (task instanceof Event event) {
+            return event.getStartTime();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,207 @@
+package buddy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import buddy.command.MarkCommand;
+import buddy.command.TodoCommand;
+import buddy.task.Task;
+import buddy.task.TaskJournal;
+import buddy.task.TaskList;
+import buddy.task.TaskParser;
+
+public class StorageTest {
+    private Path tempDir;
+    private Path dataFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("buddy-storage-test");
+        dataFile = tempDir.resolve("buddy.txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void save_atomicMode_replacesFile() throws BuddyException {
+        Storage storage = new Storage(dataFile.toString(), StorageMode.ATOMIC);
+        storage.save(List.of("T | 0 | read book"));
+        storage.save(List.of("T | 1 | read book", "T | 0 | write notes"));
+
+        assertEquals(List.of("T | 1 | read book", "T | 0 | write notes"), storage.load());
+        assertEquals(2, storage.getFlushCount());
+    }
+
+    @Test
+    void save_atomicModeCrashMidSave_keepsPreviousFile() throws BuddyException, IOException {
+        Storage storage = new Storage(dataFile.toString(), StorageMode.ATOMIC);
+        storage.save(List.of("T | 0 | read book"));
+
+        List<String> crashingTasks = new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                if (index == 1) {
+                    throw new IllegalStateException("simulated crash");
+                }
+                return "T | 0 | task " + index;
+            }
+
+            @Override
+            public int size() {
+                return 3;
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> storage.save(crashingTasks));
+        assertEquals(List.of("T | 0 | read book"), storage.load());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(dataFile), files.toList());
+        }
+    }
+
+    @Test
+    void save_concurrentBurst_flushesFewerTimesThanSaves() throws InterruptedException, BuddyException {
+        Storage storage = new Storage(dataFile.toString(), StorageMode.ATOMIC);
+        int threadCount = 8;
+        int savesPerThread = 5;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            String line = "T | 0 | task " + i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < savesPerThread; j++) {
+                        storage.save(List.of(line));
+                    }
+                } catch (InterruptedException | BuddyException e) {
+                    failure.set(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        assertTrue(storage.getFlushCount() < threadCount * savesPerThread,
+                "expected fewer flushes than saves but got " + storage.getFlushCount());
+        assertEquals(1, storage.load().size());
+    }
+
+    @Test
+    void commit_journalMode_appendsAndReplays() throws BuddyException {
+        Storage storage = new Storage(dataFile.toString(), StorageMode.JOURNAL);
+        TaskList taskList = new TaskList();
+        Ui ui = new Ui();
+        new TodoCommand("todo read book").execute(taskList, ui, storage);
+        new MarkCommand("mark 1").execute(taskList, ui, storage);
+
+        assertTrue(storage.load().isEmpty());
+
+        Storage reopened = new Storage(dataFile.toString(), StorageMode.JOURNAL);
+        TaskList replayed = new TaskList();
+        for (String record : reopened.loadJournal()) {
+            TaskJournal.apply(record, replayed);
+        }
+        assertEquals(List.of("1 | T | 1 | read book"), replayed.toFileFormat());
+    }
+
+    @Test
+    void replayJournal_badRecordBeforeDelete_stopsAndKeepsJournal() throws BuddyException, IOException {
+        Storage storage = new Storage(dataFile.toString(), StorageMode.JOURNAL);
+        TaskList taskList = new TaskList();
+        Ui ui = new Ui();
+        new TodoCommand("todo read book").execute(taskList, ui, storage);
+        new TodoCommand("todo buy milk").execute(taskList, ui, storage);
+        Path journal = tempDir.resolve("buddy.txt.journal");
+        // A corrupted mark followed by a delete that only means the first task if the mark came before it
+        Files.writeString(journal, "M | one\n" + TaskJournal.deleted(0) + "\n", StandardOpenOption.APPEND);
+        String journalContent = Files.readString(journal);
+
+        Storage reopened = new Storage(dataFile.toString(), StorageMode.JOURNAL);
+        TaskList replayed = new TaskList();
+        BuddyException ex = assertThrows(BuddyException.class, () -> reopened.replayJournal(replayed));
+
+        assertTrue(ex.getMessage().startsWith("Journal record 3 (M | one) is invalid"), ex.getMessage());
+        assertEquals(List.of("1 | T | 0 | read book", "2 | T | 0 | buy milk"), replayed.toFileFormat());
+        assertEquals(replayed.toFileFormat(), reopened.load());
+        assertFalse(Files.exists(journal));
+        assertEquals(journalContent, Files.readString(tempDir.resolve("buddy.txt.journal.rejected")));
+    }
+
+    @Test
+    void replayJournal_tornLastRecord_dropsOnlyIt() throws BuddyException, IOException {
+        Storage storage = new Storage(dataFile.toString(), StorageMode.JOURNAL);
+        TaskList taskList = new TaskList();
+        Ui ui = new Ui();
+        new TodoCommand("todo read book").execute(taskList, ui, storage);
+        new TodoCommand("todo buy milk").execute(taskList, ui, storage);
+        Files.writeString(tempDir.resolve("buddy.txt.journal"), "D | 1", StandardOpenOption.APPEND);
+
+        Storage reopened = new Storage(dataFile.toString(), StorageMode.JOURNAL);
+        TaskList replayed = new TaskList();
+        reopened.replayJournal(replayed);
+
+        assertEquals(List.of("1 | T | 0 | read book", "2 | T | 0 | buy milk"), reopened.load());
+        assertFalse(Files.exists(tempDir.resolve("buddy.txt.journal.rejected")));
+    }
+
+    @Test
+    void commit_binaryFormat_roundTripsAndConvertsBack() throws BuddyException {
+        List<String> lines = List.of("1 | T | 1 | read book | fun", "4 | D | 0 | submit report | 2019-12-02 1800",
+                "5 | E | 0 | project meeting | 2019-12-02 1400 | 2019-12-02 1600 | fun");
+        Storage textStorage = new Storage(dataFile.toString(), StorageMode.ATOMIC);
+        textStorage.save(lines);
+
+        Storage binaryStorage = new Storage(dataFile.toString(), StorageMode.ATOMIC, StorageFormat.BINARY);
+        TaskList taskList = new TaskList();
+        binaryStorage.forEachLine(line -> taskList.addTask(parse(line)));
+        binaryStorage.commit(taskList);
+
+        assertTrue(binaryStorage.hasBinaryFile());
+        assertEquals(lines, textStorage.load());
+
+        textStorage.save(textStorage.load());
+        assertFalse(textStorage.hasBinaryFile());
+        assertEquals(lines, textStorage.load());
+    }
+
+    private static Task parse(String line) {
+        try {
+            return TaskParser.parseFromFile(line);
+        } catch (BuddyException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package buddy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import buddy.task.TaskList;
+import buddy.task.Todo;
+
+public class WriteBehindPersisterTest {
+    private Path tempDir;
+    private Path dataFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("buddy-write-behind-test");
+        dataFile = tempDir.resolve("buddy.txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void flush_workerSaveInProgress_waitsForIt() throws Exception {
+        CountDownLatch saveStarted = new CountDownLatch(1);
+        CountDownLatch releaseSave = new CountDownLatch(1);
+        Storage storage = new Storage(dataFile.toString(), StorageMode.WRITE_BEHIND) {
+            @Override
+            Snapshot encode(TaskList taskList) {
+                Snapshot snapshot = super.encode(taskList);
+                return out -> {
+                    saveStarted.countDown();
+                    try {
+                        releaseSave.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    snapshot.writeTo(out);
+                };
+            }
+        };
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("read book"));
+        storage.commit(taskList);
+        assertTrue(saveStarted.await(5, TimeUnit.SECONDS));
+
+        AtomicReference<BuddyException> failure = new AtomicReference<>();
+        Thread flusher = new Thread(() -> {
+            try {
+                storage.flush();
+            } catch (BuddyException e) {
+                failure.set(e);
+            }
+        });
+        flusher.start();
+        flusher.join(200);
+        assertTrue(flusher.isAlive(), "flush should wait for the save in progress");
+
+        releaseSave.countDown();
+        flusher.join();
+        assertNull(failure.get());
+        assertEquals(List.of("1 | T | 0 | read book"), storage.load());
+    }
+}
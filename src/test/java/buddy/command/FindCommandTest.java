@@ -0,0 +1,75 @@
+package buddy.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import buddy.BuddyException;
+import buddy.Storage;
+import buddy.Ui;
+import buddy.task.Deadline;
+import buddy.task.TaskList;
+import buddy.task.Todo;
+
+public class FindCommandTest {
+
+    @Test
+    void execute_plainWords_searchForKeywords() throws BuddyException {
+        TaskList taskList = taskList();
+        FakeUi ui = new FakeUi();
+
+        new FindCommand("find done").execute(taskList, ui, new Storage("dummy.txt"));
+        assertEquals(List.of("Tasks matching \"done\":", "1." + taskList.getTask(1)), ui.lines);
+
+        new FindCommand("find today").execute(taskList, ui, new Storage("dummy.txt"));
+        assertEquals(List.of("Tasks matching \"today\":", "1." + taskList.getTask(2)), ui.lines);
+    }
+
+    @Test
+    void execute_prefixedFilters_filterTasks() throws BuddyException {
+        TaskList taskList = taskList();
+        FakeUi ui = new FakeUi();
+
+        new FindCommand("find is:done").execute(taskList, ui, new Storage("dummy.txt"));
+        assertEquals(List.of("1." + taskList.getTask(0)), ui.lines.subList(1, ui.lines.size()));
+
+        new FindCommand("find due:overdue is:deadlines").execute(taskList, ui, new Storage("dummy.txt"));
+        assertEquals(List.of("1." + taskList.getTask(2)), ui.lines.subList(1, ui.lines.size()));
+
+        new FindCommand("find \"is:done\"").execute(taskList, ui, new Storage("dummy.txt"));
+        assertEquals(List.of("No tasks found matching \"is:done\""), ui.lines);
+    }
+
+    @Test
+    void execute_unknownPrefixedFilter_throwsBuddyException() {
+        TaskList taskList = taskList();
+        Storage storage = new Storage("dummy.txt");
+
+        assertThrows(BuddyException.class,
+                () -> new FindCommand("find is:finished").execute(taskList, new FakeUi(), storage));
+        assertThrows(BuddyException.class,
+                () -> new FindCommand("find due:tomorrow").execute(taskList, new FakeUi(), storage));
+    }
+
+    private static TaskList taskList() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("read book"));
+        taskList.addTask(new Todo("get done with laundry"));
+        taskList.addTask(new Deadline("submit report today", LocalDateTime.of(2024, 3, 1, 12, 0), null));
+        taskList.markTask(0);
+        return taskList;
+    }
+
+    private static class FakeUi extends Ui {
+        private List<String> lines = List.of();
+
+        @Override
+        public void printBox(String... lines) {
+            this.lines = List.of(lines);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package buddy.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import buddy.BuddyException;
+import buddy.Constants;
+import buddy.Storage;
+import buddy.Ui;
+import buddy.task.Deadline;
+import buddy.task.TaskList;
+import buddy.task.Todo;
+
+public class ListCommandTest {
+
+    @Test
+    void execute_shortList_showsEveryTask() throws BuddyException {
+        TaskList taskList = listOf(2);
+        FakeUi ui = new FakeUi();
+
+        new ListCommand("list").execute(taskList, ui, new Storage("dummy.txt"));
+
+        assertEquals(List.of("Here are the tasks in your list:", "1.[T][ ] task 1 @1", "2.[T][ ] task 2 @2"),
+                ui.lines);
+    }
+
+    @Test
+    void execute_longList_showsFirstPageOnly() throws BuddyException {
+        TaskList taskList = listOf(Constants.LIST_PAGE_SIZE * 2 + 5);
+        FakeUi ui = new FakeUi();
+
+        new ListCommand("list").execute(taskList, ui, new Storage("dummy.txt"));
+
+        assertEquals(Constants.LIST_PAGE_SIZE + 2, ui.lines.size());
+        assertEquals("Here is page 1 of 3 of your list:", ui.lines.get(0));
+        assertEquals("Type list page 2 to see more.", ui.lines.get(ui.lines.size() - 1));
+    }
+
+    @Test
+    void execute_lastPage_numbersTasksByListPosition() throws BuddyException {
+        TaskList taskList = listOf(Constants.LIST_PAGE_SIZE * 2 + 5);
+        taskList.removeTask(0);
+        FakeUi ui = new FakeUi();
+
+        new ListCommand("list page 3").execute(taskList, ui, new Storage("dummy.txt"));
+
+        int first = Constants.LIST_PAGE_SIZE * 2 + 1;
+        assertEquals(5, ui.lines.size());
+        assertEquals(first + ".[T][ ] task " + (first + 1) + " @" + (first + 1), ui.lines.get(1));
+    }
+
+    @Test
+    void execute_range_clampsEndToListSize() throws BuddyException {
+        TaskList taskList = listOf(5);
+        FakeUi ui = new FakeUi();
+
+        new ListCommand("list 4-300").execute(taskList, ui, new Storage("dummy.txt"));
+
+        assertEquals(List.of("Here are tasks 4-5 of 5 in your list:", "4.[T][ ] task 4 @4", "5.[T][ ] task 5 @5"),
+                ui.lines);
+    }
+
+    @Test
+    void execute_rangeLongerThanPage_showsOnePage() throws BuddyException {
+        TaskList taskList = listOf(Constants.LIST_PAGE_SIZE * 3);
+        FakeUi ui = new FakeUi();
+
+        new ListCommand("list 11-1000").execute(taskList, ui, new Storage("dummy.txt"));
+
+        int last = 10 + Constants.LIST_PAGE_SIZE;
+        assertEquals(Constants.LIST_PAGE_SIZE + 2, ui.lines.size());
+        assertEquals("Here are tasks 11-" + last + " of " + Constants.LIST_PAGE_SIZE * 3 + " in your list:",
+                ui.lines.get(0));
+        assertEquals(last + ".[T][ ] task " + last + " @" + last, ui.lines.get(ui.lines.size() - 2));
+        assertEquals("Type list " + (last + 1) + "-" + Constants.LIST_PAGE_SIZE * 3 + " to see more.",
+                ui.lines.get(ui.lines.size() - 1));
+    }
+
+    @Test
+    void execute_filters_listMatchingTasksWithListNumbers() throws BuddyException {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("read book", "work"));
+        taskList.addTask(new Deadline("submit report", LocalDateTime.of(2024, 3, 1, 12, 0), "work"));
+        taskList.addTask(new Deadline("pay rent", LocalDateTime.of(2024, 3, 2, 12, 0), null));
+        taskList.addTask(new Deadline("file taxes", LocalDateTime.of(2024, 4, 1, 12, 0), "Work"));
+        taskList.markTask(1);
+        FakeUi ui = new FakeUi();
+
+        new ListCommand("list undone deadlines #work").execute(taskList, ui, new Storage("dummy.txt"));
+
+        assertEquals(List.of("Found 1 matching task:", "4." + taskList.getTask(3) + " @4"), ui.lines);
+    }
+
+    @Test
+    void execute_filtersOverManyPages_pagesThroughMatches() throws BuddyException {
+        TaskList taskList = listOf(Constants.LIST_PAGE_SIZE * 4);
+        taskList.markTasks(IntStream.range(0, taskList.size()).filter(i -> i % 2 == 0).toArray());
+        FakeUi ui = new FakeUi();
+
+        new ListCommand("list undone page 2").execute(taskList, ui, new Storage("dummy.txt"));
+
+        assertEquals(Constants.LIST_PAGE_SIZE + 1, ui.lines.size());
+        assertEquals("Found " + Constants.LIST_PAGE_SIZE * 2 + " matching tasks (page 2 of 2):", ui.lines.get(0));
+        int first = Constants.LIST_PAGE_SIZE * 2 + 2;
+        assertEquals(first + ".[T][ ] task " + first + " @" + first, ui.lines.get(1));
+    }
+
+    @Test
+    void execute_missingPageOrRange_throwsBuddyException() {
+        TaskList taskList = listOf(5);
+        Storage storage = new Storage("dummy.txt");
+
+        BuddyException page = assertThrows(BuddyException.class,
+                () -> new ListCommand("list page 2").execute(taskList, new FakeUi(), storage));
+        assertEquals("Page 2 does not exist. Your list has 1 page.", page.getMessage());
+        BuddyException range = assertThrows(BuddyException.class,
+                () -> new ListCommand("list 6-8").execute(taskList, new FakeUi(), storage));
+        assertEquals("Task number does not exist.", range.getMessage());
+        assertThrows(BuddyException.class, () -> new ListCommand("list soon").execute(taskList, new FakeUi(), storage));
+    }
+
+    private static TaskList listOf(int size) {
+        TaskList taskList = new TaskList();
+        for (int i = 1; i <= size; i++) {
+            taskList.addTask(new Todo("task " + i));
+        }
+        return taskList;
+    }
+
+    private static class FakeUi extends Ui {
+        private List<String> lines = List.of();
+
+        @Override
+        public void printBox(String... lines) {
+            this.lines = List.of(lines);
+        }
+    }
+}
@@ -29,7 +29,7 @@ public class MarkCommandTest {
 
         assertEquals("X", taskList.getTask(0).getStatusIcon());
         assertTrue(storage.saveCalled);
-        assertEquals(List.of("T | 1 | read book"), storage.lastSaved);
+        assertEquals(List.of("1 | T | 1 | read book"), storage.lastSaved);
     }
 
     @Test
@@ -56,8 +56,82 @@ public class MarkCommandTest {
         assertEquals("Please provide a valid task number.", ex.getMessage());
     }
 
+    @Test
+    void execute_taskId_marksTaskAfterEarlierDelete() throws BuddyException {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("read book"));
+        taskList.addTask(new Todo("buy milk"));
+        taskList.removeTask(0);
+
+        FakeStorage storage = new FakeStorage();
+        MarkCommand command = new MarkCommand("mark @2");
+        command.execute(taskList, new FakeUi(), storage);
+
+        assertEquals(List.of("2 | T | 1 | buy milk"), storage.lastSaved);
+    }
+
+    @Test
+    void execute_deletedTaskId_throwsBuddyException() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("read book"));
+        taskList.removeTask(0);
+
+        MarkCommand command = new MarkCommand("mark @1");
+
+        BuddyException ex = assertThrows(BuddyException.class,
+                () -> command.execute(taskList, new FakeUi(), new FakeStorage()));
+        assertEquals("Task ID does not exist.", ex.getMessage());
+    }
+
+    @Test
+    void execute_rangesAndIds_marksAllTasksWithOneSave() throws BuddyException {
+        TaskList taskList = new TaskList();
+        taskList.setHistoryDepth(1);
+        for (int i = 1; i <= 6; i++) {
+            taskList.addTask(new Todo("task " + i));
+        }
+
+        FakeStorage storage = new FakeStorage();
+        MarkCommand command = new MarkCommand("mark 1-2, 2,@5");
+        command.execute(taskList, new FakeUi(), storage);
+
+        assertEquals(1, storage.saveCount);
+        assertEquals(List.of("1 | T | 1 | task 1", "2 | T | 1 | task 2", "3 | T | 0 | task 3",
+                "4 | T | 0 | task 4", "5 | T | 1 | task 5", "6 | T | 0 | task 6"), storage.lastSaved);
+        assertEquals(3, taskList.undo().size());
+        assertEquals("1 | T | 0 | task 1", taskList.getTask(0).toFileFormat());
+    }
+
+    @Test
+    void execute_tag_marksEveryTaggedTask() throws BuddyException {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("read book", "work"));
+        taskList.addTask(new Todo("buy milk"));
+        taskList.addTask(new Todo("write report", "Work"));
+
+        FakeStorage storage = new FakeStorage();
+        new MarkCommand("mark #work").execute(taskList, new FakeUi(), storage);
+
+        assertEquals(List.of("1 | T | 1 | read book | work", "2 | T | 0 | buy milk", "3 | T | 1 | write report | Work"),
+                storage.lastSaved);
+    }
+
+    @Test
+    void execute_reversedRange_throwsBuddyException() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("read book"));
+        taskList.addTask(new Todo("buy milk"));
+
+        MarkCommand command = new MarkCommand("mark 2-1");
+
+        BuddyException ex = assertThrows(BuddyException.class,
+                () -> command.execute(taskList, new FakeUi(), new FakeStorage()));
+        assertEquals("Please provide a valid range of task numbers, e.g. 1-5.", ex.getMessage());
+    }
+
     private static class FakeStorage extends Storage {
         private boolean saveCalled = false;
+        private int saveCount;
         private List<String> lastSaved = List.of();
 
         FakeStorage() {
@@ -67,6 +141,7 @@ public class MarkCommandTest {
         @Override
         public void save(List<String> tasks) {
             saveCalled = true;
+            saveCount++;
             lastSaved = tasks;
         }
     }
@@ -20,8 +20,8 @@ public class UnmarkCommandTest {
     void execute_validIndex_unmarksTaskAndSaves() throws BuddyException {
         TaskList taskList = new TaskList();
         Todo todo = new Todo("write tests");
-        todo.markAsDone();
         taskList.addTask(todo);
+        taskList.markTask(0);
 
         FakeStorage storage = new FakeStorage();
         FakeUi ui = new FakeUi();
@@ -31,7 +31,7 @@ public class UnmarkCommandTest {
 
         assertEquals(" ", taskList.getTask(0).getStatusIcon());
         assertTrue(storage.saveCalled);
-        assertEquals(List.of("T | 0 | write tests"), storage.lastSaved);
+        assertEquals(List.of("1 | T | 0 | write tests"), storage.lastSaved);
     }
 
     @Test
@@ -0,0 +1,120 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DateIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void findOverlapping_agreesWithScanAfterChanges() {
+        Random random = new Random(42);
+        DateIndex index = new DateIndex();
+        List<Task> live = addRandomTasks(index, random, 1, 2000);
+
+        for (int day = 0; day < 70; day++) {
+            LocalDateTime start = BASE.plusDays(day);
+            LocalDateTime end = start.plusDays(1).minusNanos(1);
+            assertEquals(scanOverlapping(live, start, end), index.findOverlapping(start, end), "day " + day);
+        }
+        assertEquals(scanOverlapping(live, LocalDateTime.MIN, LocalDateTime.MAX),
+                index.findOverlapping(LocalDateTime.MIN, LocalDateTime.MAX));
+    }
+
+    @Test
+    void countOverlapping_endRankBuiltBeforeChanges_countsExactly() {
+        Random random = new Random(29);
+        DateIndex index = new DateIndex();
+        List<Task> live = addRandomTasks(index, random, 1, 500);
+        index.buildEndRank();
+        live.addAll(addRandomTasks(index, random, 501, 1500));
+
+        assertTrue(index.hasEndRank());
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime start = BASE.plusHours(random.nextInt(24 * 70) - 24 * 5);
+            LocalDateTime end = start.plusHours(random.nextInt(24 * 14));
+            assertEquals(scanOverlapping(live, start, end).size(), index.countOverlapping(start, end));
+        }
+    }
+
+    @Test
+    void findOverlapping_rangeBoundsAreInclusive() {
+        DateIndex index = new DateIndex();
+        Deadline deadline = deadline(1, BASE);
+        Event event = event(2, BASE.plusHours(1), BASE.plusHours(3));
+        index.add(deadline);
+        index.add(event);
+        index.add(todo(3));
+
+        assertEquals(List.of(deadline), index.findOverlapping(BASE, BASE));
+        assertEquals(List.of(event), index.findOverlapping(BASE.plusHours(3), BASE.plusHours(4)));
+        assertEquals(List.of(deadline, event), index.findOverlapping(BASE, BASE.plusHours(1)));
+        assertTrue(index.findOverlapping(BASE.plusHours(3).plusNanos(1), BASE.plusDays(1)).isEmpty());
+
+        index.remove(deadline);
+        assertEquals(List.of(event), index.findOverlapping(BASE, BASE.plusHours(1)));
+    }
+
+    /**
+     * Adds and removes random tasks with IDs from firstId on, returning the tasks it left in the index in ID order.
+     */
+    private static List<Task> addRandomTasks(DateIndex index, Random random, int firstId, int steps) {
+        List<Task> live = new ArrayList<>();
+        for (int i = 0; i < steps; i++) {
+            int id = firstId + i;
+            LocalDateTime start = BASE.plusMinutes(random.nextInt(60 * 24 * 60));
+            Task task = switch (random.nextInt(4)) {
+            case 0 -> todo(id);
+            case 1 -> deadline(id, start);
+            case 2 -> event(id, start, start.plusMinutes(random.nextInt(60 * 24 * 5)));
+            default -> null;
+            };
+            if (task != null) {
+                index.add(task);
+                live.add(task);
+            } else if (!live.isEmpty()) {
+                index.remove(live.remove(random.nextInt(live.size())));
+            }
+        }
+        return live;
+    }
+
+    private static List<Task> scanOverlapping(List<Task> tasks, LocalDateTime start, LocalDateTime end) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task instanceof Deadline deadline && !deadline.getDateTime().isBefore(start)
+                    && !deadline.getDateTime().isAfter(end)) {
+                matches.add(task);
+            } else if (task instanceof Event event && !event.getStartTime().isAfter(end)
+                    && !event.getEndTime().isBefore(start)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    private static Todo todo(int id) {
+        Todo todo = new Todo("todo " + id);
+        todo.setId(id);
+        return todo;
+    }
+
+    private static Deadline deadline(int id, LocalDateTime by) {
+        Deadline deadline = new Deadline("deadline " + id, by, null);
+        deadline.setId(id);
+        return deadline;
+    }
+
+    private static Event event(int id, LocalDateTime from, LocalDateTime to) {
+        Event event = new Event("event " + id, from, to, null);
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,68 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class DateTimeUtilTest {
+
+    @Test
+    void fileAndDisplayCodec_everyDay_matchesFormatter() {
+        LocalDate end = LocalDate.of(9999, 12, 31);
+        int minuteOfDay = 0;
+        for (LocalDate date = LocalDate.of(1, 1, 1); !date.isAfter(end); date = date.plusDays(1)) {
+            LocalDateTime dateTime = date.atTime(minuteOfDay / 60, minuteOfDay % 60);
+            minuteOfDay = (minuteOfDay + 7) % (24 * 60);
+
+            String fileText = dateTime.format(DateTimeUtil.FILE_DATE_TIME_FORMAT);
+            assertEquals(fileText, DateTimeUtil.formatFileDateTime(dateTime));
+            assertEquals(dateTime, DateTimeUtil.parseFileDateTime(fileText));
+            assertEquals(dateTime.format(DateTimeUtil.DISPLAY_DATE_TIME_FORMAT),
+                    DateTimeUtil.formatDisplayDateTime(dateTime));
+            assertEquals(date, DateTimeUtil.tryParseFindDate(date.format(DateTimeUtil.FIND_DATE_FORMAT)));
+        }
+    }
+
+    @Test
+    void tryParseFileDateTime_unusualInput_matchesFormatter() {
+        String[] inputs = {
+            "2026-02-30 1200", "2024-02-29 0000", "2026-02-29 0000", "2026-04-31 2359",
+            "2026-01-32 1200", "2026-13-01 1200", "2026-00-10 1200", "2026-01-00 1200",
+            "2026-01-01 2400", "2026-01-01 2401", "2026-01-01 2360", "0000-01-01 0000",
+            "12026-01-01 1200", "+12026-01-01 1200", "2026-1-1 1200", "2026-01-01 12:00",
+            "abcd-ef-gh ijkl", "", " 2026-01-01 1200", "2026-01-01 1200 "
+        };
+        for (String input : inputs) {
+            assertEquals(parseWithFormatter(input), DateTimeUtil.tryParseFileDateTime(input), input);
+        }
+    }
+
+    @Test
+    void tryParseFindDate_unusualInput_matchesFormatter() {
+        String[] inputs = {
+            "2026-02-30", "2026-02-20", "2026-13-01", "2026-1-1", "12026-01-01", "+12026-01-01",
+            "0000-01-01", "report", "", "2026-02-20x"
+        };
+        for (String input : inputs) {
+            LocalDate expected;
+            try {
+                expected = LocalDate.parse(input, DateTimeUtil.FIND_DATE_FORMAT);
+            } catch (DateTimeParseException e) {
+                expected = null;
+            }
+            assertEquals(expected, DateTimeUtil.tryParseFindDate(input), input);
+        }
+    }
+
+    private LocalDateTime parseWithFormatter(String input) {
+        try {
+            return LocalDateTime.parse(input, DateTimeUtil.FILE_DATE_TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
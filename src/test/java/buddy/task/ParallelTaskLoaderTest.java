@@ -0,0 +1,58 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import buddy.BuddyException;
+
+public class ParallelTaskLoaderTest {
+
+    @Test
+    void finish_manyChunks_matchesSequentialLoadInFileOrder() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            if (i % 997 == 0) {
+                lines.add("X | corrupted " + i);
+            } else if (i % 3 == 0) {
+                lines.add("D | 0 | report " + i + " | 2019-12-02 1800");
+            } else if (i % 3 == 1) {
+                lines.add("E | 1 | meeting " + i + " | 2019-12-02 1400 | 2019-12-02 1600 | work");
+            } else {
+                lines.add("T | 0 | task " + i);
+            }
+        }
+
+        TaskList expected = new TaskList();
+        List<String> expectedWarnings = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                expected.addTask(TaskParser.parseFromFile(lines.get(i)));
+            } catch (BuddyException e) {
+                expectedWarnings.add((i + 1) + ": " + lines.get(i));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int run = 0; run < 3; run++) {
+                ParallelTaskLoader loader = new ParallelTaskLoader(pool);
+                lines.forEach(loader);
+                TaskList loaded = new TaskList();
+                List<String> warnings = new ArrayList<>();
+                loader.finish(loaded, (line, lineNumber) -> warnings.add(lineNumber + ": " + line));
+
+                assertEquals(expected.toFileFormat(), loaded.toFileFormat());
+                assertEquals(expectedWarnings, warnings);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(10, expectedWarnings.size());
+        assertEquals("997: X | corrupted 997", expectedWarnings.get(0));
+    }
+}
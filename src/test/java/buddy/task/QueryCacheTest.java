@@ -0,0 +1,90 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import buddy.BuddyException;
+import buddy.Parser;
+
+public class QueryCacheTest {
+
+    @Test
+    void put_repeatedOverdueQueries_doNotEvictOthers() throws BuddyException {
+        QueryCache cache = new QueryCache(4);
+        List<TaskQuery> keywords = List.of(keyword("a"), keyword("b"), keyword("c"), keyword("d"));
+        for (TaskQuery query : keywords) {
+            cache.put(query, List.of());
+        }
+
+        LocalDateTime now = LocalDateTime.of(2026, 3, 2, 9, 0);
+        for (int run = 0; run < 10; run++) {
+            TaskQuery overdue = Parser.parseFindQuery("find due:overdue", 4, now.plusSeconds(run));
+            assertNull(cache.get(overdue));
+            cache.put(overdue, List.of());
+        }
+
+        for (TaskQuery query : keywords) {
+            assertEquals(List.of(), cache.get(query));
+        }
+        assertEquals(new QueryCacheStats(4, 10, 0, 0, 4), cache.stats());
+    }
+
+    @Test
+    void get_todayQueryLaterThatDay_hits() throws BuddyException {
+        QueryCache cache = new QueryCache(4);
+        TaskQuery morning = Parser.parseFindQuery("find due:today", 4, LocalDateTime.of(2026, 3, 2, 9, 0));
+        TaskQuery evening = Parser.parseFindQuery("find due:today", 4, LocalDateTime.of(2026, 3, 2, 21, 30));
+        TaskQuery nextDay = Parser.parseFindQuery("find due:today", 4, LocalDateTime.of(2026, 3, 3, 9, 0));
+        cache.put(morning, List.of());
+
+        assertEquals(List.of(), cache.get(evening));
+        assertNull(cache.get(nextDay));
+    }
+
+    @Test
+    void invalidate_taggedTask_dropsOnlyQueriesItMatches() {
+        QueryCache cache = new QueryCache(8);
+        TaskQuery work = new TaskQuery("Work", EnumSet.noneOf(TaskFilter.class), List.of(), null, null);
+        TaskQuery home = new TaskQuery("home", EnumSet.noneOf(TaskFilter.class), List.of(), null, null);
+        TaskQuery report = keyword("report");
+        TaskQuery milk = keyword("milk");
+        for (TaskQuery query : List.of(work, home, report, milk)) {
+            cache.put(query, List.of());
+        }
+
+        cache.invalidate(new Todo("write report", "work"));
+
+        assertNull(cache.get(work));
+        assertNull(cache.get(report));
+        assertEquals(List.of(), cache.get(home));
+        assertEquals(List.of(), cache.get(milk));
+        assertEquals(new QueryCacheStats(2, 2, 0, 2, 2), cache.stats());
+    }
+
+    @Test
+    void put_pastCapacity_evictsLeastRecentlyUsed() {
+        QueryCache cache = new QueryCache(2);
+        TaskQuery first = keyword("first");
+        TaskQuery second = keyword("second");
+        cache.put(first, List.of());
+        cache.put(second, List.of());
+        cache.get(first);
+
+        cache.put(keyword("third"), List.of());
+        cache.invalidate(new Todo("second"));
+
+        assertNull(cache.get(second));
+        assertEquals(List.of(), cache.get(first));
+        assertEquals(new QueryCacheStats(2, 1, 1, 0, 2), cache.stats());
+    }
+
+    private static TaskQuery keyword(String keyword) {
+        return new TaskQuery(null, EnumSet.noneOf(TaskFilter.class), List.of(keyword), null, null);
+    }
+}
@@ -0,0 +1,101 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class StatsIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void snapshot_ranksBuiltBeforeChanges_agreesWithScan() {
+        Random random = new Random(13);
+        StatsIndex index = new StatsIndex();
+        List<Task> live = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            Task task = randomTask(random, id);
+            index.add(task);
+            live.add(task);
+        }
+        index.buildDateRanks(live);
+        for (int i = 0; i < 1000; i++) {
+            Task task = live.get(random.nextInt(live.size()));
+            switch (random.nextInt(3)) {
+            case 0 -> {
+                index.remove(task);
+                live.remove(task);
+            }
+            case 1 -> {
+                // Marking counts the task out with its old status and back in with the new one
+                index.remove(task);
+                task.setDone(!task.isDone());
+                index.add(task);
+            }
+            default -> {
+                Task added = randomTask(random, 2001 + i);
+                index.add(added);
+                live.add(added);
+            }
+            }
+        }
+
+        LocalDateTime now = BASE.plusDays(30);
+        LocalDateTime weekStart = BASE.plusDays(28);
+        LocalDateTime weekEnd = BASE.plusDays(35).minusNanos(1);
+        TaskStats stats = index.snapshot(now, weekStart, weekEnd, Map.of());
+
+        assertEquals(live.stream().filter(task -> task instanceof Todo).count(), stats.todoCount());
+        assertEquals(live.stream().filter(task -> task instanceof Deadline).count(), stats.deadlineCount());
+        assertEquals(live.stream().filter(task -> task instanceof Event).count(), stats.eventCount());
+        assertEquals(live.stream().filter(Task::isDone).count(), stats.doneCount());
+        assertEquals(live.stream().filter(task -> task instanceof Deadline deadline && !task.isDone()
+                && deadline.getDateTime().isBefore(now)).count(), stats.overdueDeadlineCount());
+        assertEquals(live.stream().filter(task -> task instanceof Event event
+                && !event.getStartTime().isAfter(weekEnd) && !event.getEndTime().isBefore(weekStart)).count(),
+                stats.eventsThisWeekCount());
+    }
+
+    @Test
+    void buildDateRanks_afterCounting_ranksCurrentTasks() {
+        StatsIndex index = new StatsIndex();
+        Deadline overdue = new Deadline("file taxes", BASE.minusDays(1), null);
+        overdue.setId(1);
+        Deadline doneOverdue = new Deadline("pay rent", BASE.minusDays(2), null);
+        doneOverdue.setId(2);
+        doneOverdue.setDone(true);
+        Event event = new Event("conference", BASE.minusDays(1), BASE.plusDays(1), null);
+        event.setId(3);
+        index.add(overdue);
+        index.add(doneOverdue);
+        index.add(event);
+
+        assertFalse(index.hasDateRanks());
+        index.buildDateRanks(List.of(overdue, doneOverdue, event));
+        assertTrue(index.hasDateRanks());
+
+        TaskStats stats = index.snapshot(BASE, BASE, BASE.plusDays(7), Map.of("work", 1));
+        assertEquals(new TaskStats(0, 2, 1, 1, 1, 1, Map.of("work", 1)), stats);
+    }
+
+    private static Task randomTask(Random random, int id) {
+        LocalDateTime start = BASE.plusHours(random.nextInt(24 * 60));
+        Task task = switch (random.nextInt(3)) {
+        case 0 -> new Todo("task " + id);
+        case 1 -> new Deadline("task " + id, start, null);
+        default -> new Event("task " + id, start, start.plusHours(random.nextInt(72)), null);
+        };
+        task.setId(id);
+        if (random.nextInt(3) == 0) {
+            task.setDone(true);
+        }
+        return task;
+    }
+}
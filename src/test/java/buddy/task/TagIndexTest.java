@@ -0,0 +1,72 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class TagIndexTest {
+
+    @Test
+    void get_tagInAnyCase_returnsTasksInListOrder() {
+        TagIndex index = new TagIndex();
+        TaskTrie tasks = TaskTrie.EMPTY;
+        Todo first = new Todo("read book", "Work");
+        Todo second = new Todo("buy milk", "home");
+        Todo third = new Todo("write report", "work");
+        Todo untagged = new Todo("call mum");
+        for (Task task : List.of(first, second, third, untagged)) {
+            task.setId(tasks.nextId());
+            tasks = tasks.append(task);
+        }
+        // Added out of list order, as an undo puts a task back
+        for (Task task : List.of(third, untagged, second, first)) {
+            index.add(task);
+        }
+
+        assertEquals(List.of(first, third), index.get("WORK", tasks));
+        assertEquals(2, index.count("work"));
+        assertEquals(2, index.bits("wOrK").cardinality());
+        assertEquals(Map.of("work", 2, "home", 1), index.counts());
+        assertTrue(index.get("school", tasks).isEmpty());
+    }
+
+    @Test
+    void remove_lastTaskWithTag_dropsTag() {
+        TagIndex index = new TagIndex();
+        Todo first = todo(1, "read book", "work");
+        Todo second = todo(2, "buy milk", "home");
+        index.add(first);
+        index.add(second);
+
+        index.remove(second);
+        index.remove(second);
+
+        assertEquals(0, index.count("home"));
+        assertTrue(index.bits("home").isEmpty());
+        assertEquals(Map.of("work", 1), index.counts());
+        index.add(second);
+        assertEquals(Map.of("work", 1, "home", 1), index.counts());
+    }
+
+    @Test
+    void add_sameTaskTwice_countsItOnce() {
+        TagIndex index = new TagIndex();
+        Todo task = todo(5, "read book", "work");
+
+        index.add(task);
+        index.add(task);
+
+        assertEquals(1, index.count("work"));
+        assertEquals(4, index.bits("work").nextSetBit(0));
+    }
+
+    private static Todo todo(int id, String description, String tag) {
+        Todo task = new Todo(description, tag);
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,138 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import buddy.BuddyException;
+
+public class TaskBinaryFormatTest {
+    // Magic "BDYB" followed by the version
+    private static final int[] HEADER = {'B', 'D', 'Y', 'B', 0};
+
+    @Test
+    void read_writtenTasks_roundTrips() throws BuddyException, IOException {
+        List<String> lines = List.of("T | 1 | read book | fun", "D | 0 | submit report | 2019-12-02 1800",
+                "E | 0 | project meeting | 2019-12-02 1400 | 2019-12-02 1600 | fun");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskBinaryFormat.fromText(lines, out);
+
+        assertEquals(lines, readLines(out.toByteArray()));
+    }
+
+    @Test
+    void read_writtenTasksWithIds_keepsIds() throws BuddyException, IOException {
+        List<String> lines = List.of("1 | T | 1 | read book | fun", "4 | D | 0 | submit report | 2019-12-02 1800",
+                "300 | E | 0 | project meeting | 2019-12-02 1400 | 2019-12-02 1600", "T | 0 | buy milk");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskBinaryFormat.fromText(lines, out);
+
+        assertEquals(lines, readLines(out.toByteArray()));
+    }
+
+    @Test
+    void read_handWrittenRecord_readsTask() throws BuddyException, IOException {
+        // One task, no tags, not done, then a 4-byte record: type, no tag, description "a"
+        assertEquals(List.of("T | 0 | a"), readLines(file(2, 0, 0, 8, 'T', 0, 2, 'a')));
+    }
+
+    @Test
+    void read_handWrittenVersion2Record_readsId() throws BuddyException, IOException {
+        // One task, no tags, not done, then a 5-byte record: type, ID 7 as a gap from 0, no tag, description "a"
+        assertEquals(List.of("7 | T | 0 | a"), readLines(fileWithVersion(2, 2, 0, 0, 10, 'T', 14, 0, 2, 'a')));
+    }
+
+    @Test
+    void read_negativeIdGap_throwsBuddyException() {
+        assertInvalid("Invalid task ID in binary task file: gap of -1",
+                fileWithVersion(2, 2, 0, 0, 10, 'T', 1, 0, 2, 'a'));
+    }
+
+    @Test
+    void read_unknownVersion_throwsBuddyException() {
+        assertInvalid("Unsupported binary task file version: 3", fileWithVersion(3, 0, 0));
+    }
+
+    @Test
+    void read_negativeTaskCount_throwsBuddyException() {
+        assertInvalid("Invalid task count in binary task file: -1", file(1, 0, 0));
+    }
+
+    @Test
+    void read_taskCountLargerThanFile_throwsBuddyException() {
+        assertInvalid("Invalid task count in binary task file: 2147483647",
+                file(0xFE, 0xFF, 0xFF, 0xFF, 0x0F, 0, 0));
+    }
+
+    @Test
+    void read_hugeStringLength_throwsBuddyException() {
+        assertInvalid("Invalid string length in binary task file: 1073741823",
+                file(2, 0, 0, 14, 'T', 0, 0xFE, 0xFF, 0xFF, 0xFF, 0x07));
+    }
+
+    @Test
+    void read_negativeStringLength_throwsBuddyException() {
+        assertInvalid("Invalid string length in binary task file: -2", file(2, 0, 0, 8, 'T', 0, 3, 'a'));
+    }
+
+    @Test
+    void read_recordLongerThanItsFields_throwsBuddyException() {
+        assertInvalid("Task record 1 is longer than its fields", file(2, 0, 0, 10, 'T', 0, 2, 'a', 'b'));
+    }
+
+    @Test
+    void read_recordShorterThanItsFields_throwsBuddyException() {
+        // A deadline record that ends before its date
+        assertInvalid("Task record 1 is shorter than its fields", file(2, 0, 0, 8, 'D', 0, 2, 'a'));
+    }
+
+    @Test
+    void read_truncatedFile_throwsBuddyException() {
+        // The file ends where the done flags should start
+        assertInvalid("Binary task file is truncated", file(2, 0));
+    }
+
+    @Test
+    void read_dateOutOfRange_throwsBuddyException() {
+        byte[] bytes = file(2, 0, 0, 28, 'D', 0, 2, 'a',
+                0xFE, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01);
+        assertInvalid("Invalid date in binary task file: " + Long.MAX_VALUE + " minutes", bytes);
+    }
+
+    private static void assertInvalid(String message, byte[] bytes) {
+        BuddyException ex = assertThrows(BuddyException.class, () -> readLines(bytes));
+        assertEquals(message, ex.getMessage());
+    }
+
+    private static List<String> readLines(byte[] bytes) throws BuddyException, IOException {
+        List<String> lines = new ArrayList<>();
+        TaskBinaryFormat.toText(new ByteArrayInputStream(bytes), bytes.length, lines::add);
+        return lines;
+    }
+
+    /**
+     * Returns a version 1 file, whose records have no ID field, with the given bytes after the header.
+     */
+    private static byte[] file(int... body) {
+        return fileWithVersion(1, body);
+    }
+
+    private static byte[] fileWithVersion(int version, int... body) {
+        byte[] bytes = new byte[HEADER.length + 1 + body.length];
+        for (int i = 0; i < HEADER.length; i++) {
+            bytes[i] = (byte) HEADER[i];
+        }
+        bytes[HEADER.length] = (byte) version;
+        for (int i = 0; i < body.length; i++) {
+            bytes[HEADER.length + 1 + i] = (byte) body[i];
+        }
+        return bytes;
+    }
+}
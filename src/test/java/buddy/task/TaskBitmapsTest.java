@@ -0,0 +1,29 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskBitmapsTest {
+
+    @Test
+    void select_randomBitmap_matchesWalkingSetBits() {
+        Random random = new Random(3);
+        BitSet bits = new BitSet();
+        for (int i = 0; i < 5_000; i++) {
+            if (random.nextInt(7) == 0) {
+                bits.set(i);
+            }
+        }
+
+        int rank = 0;
+        for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+            assertEquals(bit, TaskBitmaps.select(bits, rank++));
+        }
+        assertEquals(-1, TaskBitmaps.select(bits, rank));
+        assertEquals(-1, TaskBitmaps.select(new BitSet(), 0));
+    }
+}
@@ -0,0 +1,69 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskHistoryTest {
+
+    @Test
+    void undoAndRedo_returnVersionsInOrder() {
+        TaskHistory history = new TaskHistory();
+        history.setDepth(5);
+        TaskHistory.Version first = version();
+        TaskHistory.Version second = version();
+        history.record(first);
+        history.record(second);
+
+        assertSame(second, history.undo());
+        assertSame(first, history.undo());
+        assertNull(history.undo());
+        assertSame(first, history.redo());
+        assertSame(second, history.redo());
+        assertNull(history.redo());
+    }
+
+    @Test
+    void record_pastDepth_dropsOldestAndClearsRedo() {
+        TaskHistory history = new TaskHistory();
+        history.setDepth(2);
+        TaskHistory.Version second = version();
+        TaskHistory.Version third = version();
+        history.record(version());
+        history.record(second);
+        history.record(third);
+
+        assertSame(third, history.undo());
+        history.record(version());
+        assertNull(history.redo());
+        history.undo();
+        assertSame(second, history.undo());
+        assertNull(history.undo());
+    }
+
+    @Test
+    void setDepth_smallerOrZero_dropsOldestVersions() {
+        TaskHistory history = new TaskHistory();
+        history.setDepth(3);
+        TaskHistory.Version newest = version();
+        history.record(version());
+        history.record(version());
+        history.record(newest);
+
+        history.setDepth(1);
+        assertSame(newest, history.undo());
+        assertNull(history.undo());
+
+        history.setDepth(0);
+        history.record(version());
+        assertNull(history.undo());
+        assertNull(history.redo());
+    }
+
+    private static TaskHistory.Version version() {
+        return new TaskHistory.Version(TaskTrie.EMPTY, TaskTrie.EMPTY, List.of());
+    }
+}
@@ -0,0 +1,501 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+
+import buddy.BuddyException;
+
+public class TaskListTest {
+
+    @Test
+    void positionsAndIds_matchArrayListAfterMutations() {
+        Random random = new Random(3);
+        TaskList taskList = new TaskList();
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            if (random.nextInt(3) == 0 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), taskList.removeTask(index));
+            } else {
+                Todo todo = new Todo("task " + i);
+                taskList.addTask(todo);
+                expected.add(todo);
+            }
+        }
+
+        assertEquals(expected.size(), taskList.size());
+        assertEquals(expected, taskList.getAllTasks());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), taskList.getTask(i));
+            assertEquals(i, taskList.indexOfId(expected.get(i).getId()));
+        }
+    }
+
+    @Test
+    void removeTasks_matchesArrayListAndUndoesAsOneChange() {
+        Random random = new Random(7);
+        TaskList taskList = new TaskList();
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Todo todo = new Todo("task " + i, i % 3 == 0 ? "work" : null);
+            taskList.addTask(todo);
+            expected.add(todo);
+        }
+        taskList.setHistoryDepth(10);
+        List<Task> before = List.copyOf(expected);
+
+        int[] indexes = random.ints(800, 0, expected.size()).distinct().sorted().toArray();
+        List<Task> removed = taskList.removeTasks(indexes);
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            assertSame(expected.remove(indexes[i]), removed.get(i));
+        }
+
+        assertEquals(expected, taskList.getAllTasks());
+        assertEquals(expected.stream().filter(task -> task.getTag() != null).toList(),
+                taskList.getTasksWithTag("work"));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, taskList.indexOfId(expected.get(i).getId()));
+        }
+
+        assertEquals(indexes.length, taskList.undo().size());
+        assertEquals(before, taskList.getAllTasks());
+        assertEquals(before.stream().filter(task -> task.getTag() != null).toList(),
+                taskList.getTasksWithTag("work"));
+    }
+
+    @Test
+    void tasksMatching_agreesWithScanAfterMutations() {
+        Random random = new Random(11);
+        TaskList taskList = new TaskList();
+        taskList.setHistoryDepth(20);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 2000; i++) {
+            String tag = random.nextBoolean() ? "work" : null;
+            taskList.addTask(switch (random.nextInt(3)) {
+            case 0 -> new Todo("task " + i, tag);
+            case 1 -> new Deadline("task " + i, base.plusHours(i), tag);
+            default -> new Event("task " + i, base.plusHours(i), base.plusHours(i + 2), tag);
+            });
+        }
+        taskList.markTasks(random.ints(500, 0, 2000).distinct().sorted().toArray());
+        taskList.removeTasks(random.ints(300, 0, 1900).distinct().sorted().toArray());
+        taskList.unmarkTasks(random.ints(100, 0, 1500).distinct().sorted().toArray());
+        taskList.undo();
+        taskList.undo();
+
+        Set<TaskFilter> filters = EnumSet.of(TaskFilter.UNDONE, TaskFilter.DEADLINES, TaskFilter.EVENTS);
+        List<Task> expected = taskList.stream()
+                .filter(task -> !task.isDone() && !(task instanceof Todo) && task.getTag() != null)
+                .toList();
+        assertEquals(expected.size(), taskList.countTasksMatching(filters, "WORK"));
+        assertEquals(expected, taskList.getTasksMatching(filters, "work", 0, Integer.MAX_VALUE));
+        assertEquals(expected.subList(10, 15), taskList.getTasksMatching(filters, "work", 10, 5));
+        assertEquals(taskList.stream().filter(Task::isDone).count(),
+                taskList.countTasksMatching(EnumSet.of(TaskFilter.DONE), null));
+    }
+
+    @Test
+    void findTasks_agreesWithScanAndStartsFromMostSelectivePath() {
+        Random random = new Random(17);
+        TaskList taskList = new TaskList();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        String[] words = {"report", "review", "meeting", "groceries", "invoice"};
+        for (int i = 0; i < 2000; i++) {
+            String tag = random.nextInt(10) == 0 ? "work" : null;
+            String description = words[random.nextInt(words.length)] + " " + i;
+            LocalDateTime start = base.plusHours(random.nextInt(24 * 60));
+            taskList.addTask(switch (random.nextInt(3)) {
+            case 0 -> new Todo(description, tag);
+            case 1 -> new Deadline(description, start, tag);
+            default -> new Event(description, start, start.plusHours(random.nextInt(72)), tag);
+            });
+        }
+        taskList.markTasks(random.ints(700, 0, 2000).distinct().sorted().toArray());
+        taskList.removeTasks(random.ints(300, 0, 1900).distinct().sorted().toArray());
+
+        LocalDateTime from = base.plusDays(10);
+        LocalDateTime to = base.plusDays(13).minusNanos(1);
+        List<TaskQuery> queries = List.of(
+                new TaskQuery("work", EnumSet.of(TaskFilter.UNDONE), List.of("report"), null, to),
+                new TaskQuery(null, EnumSet.noneOf(TaskFilter.class), List.of("invoice 1"), null, null),
+                new TaskQuery(null, EnumSet.of(TaskFilter.EVENTS, TaskFilter.DONE), List.of(), from, to),
+                new TaskQuery(null, EnumSet.noneOf(TaskFilter.class), List.of("re", "view"), from, null));
+        for (TaskQuery query : queries) {
+            assertEquals(taskList.stream().filter(query::matches).toList(), taskList.findTasks(query),
+                    query.describe());
+        }
+
+        QueryPlan tagPlan = taskList.planQuery(queries.get(0));
+        assertEquals(QueryPlan.Kind.BITMAP, tagPlan.chosenPath().kind());
+        assertEquals(taskList.countTasksMatching(EnumSet.of(TaskFilter.UNDONE), "work"),
+                tagPlan.chosenPath().estimatedTasks());
+        assertEquals(2, tagPlan.residualChecks().size());
+        assertEquals(QueryPlan.Kind.DATE_RANGE, taskList.planQuery(new TaskQuery(null,
+                EnumSet.noneOf(TaskFilter.class), List.of("re"), null, from)).chosenPath().kind());
+        QueryPlan keywordPlan = taskList.planQuery(queries.get(3));
+        assertEquals("view", keywordPlan.chosenPath().keyword());
+        assertEquals(List.of("on or after " + from.toLocalDate(), "contains \"re\""), keywordPlan.residualChecks());
+    }
+
+    @Test
+    void planQuery_countsTasksInDateRangeExactlyAfterMutations() {
+        Random random = new Random(29);
+        TaskList taskList = new TaskList();
+        taskList.setHistoryDepth(10);
+        LocalDateTime base = LocalDateTime.of(2026, 2, 1, 0, 0);
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(24 * 60));
+            taskList.addTask(switch (random.nextInt(3)) {
+            case 0 -> new Todo("task " + i, null);
+            case 1 -> new Deadline("task " + i, start, null);
+            default -> new Event("task " + i, start, start.plusHours(random.nextInt(24 * 10)), null);
+            });
+        }
+        TaskQuery firstWeek = new TaskQuery(null, EnumSet.noneOf(TaskFilter.class), List.of(), base,
+                base.plusWeeks(1).minusNanos(1));
+        taskList.planQuery(firstWeek); // Build the end rank so the changes below must maintain it
+        taskList.removeTasks(random.ints(300, 0, 1900).distinct().sorted().toArray());
+        taskList.undo();
+        taskList.removeTasks(random.ints(200, 0, 1700).distinct().sorted().toArray());
+        taskList.addTask(new Event("late event", base.minusDays(3), base.plusDays(90), null));
+
+        for (int i = 0; i < 20; i++) {
+            LocalDateTime from = base.plusHours(random.nextInt(24 * 70) - 24 * 5);
+            LocalDateTime to = from.plusHours(random.nextInt(24 * 14));
+            int openEnd = random.nextInt(5); // Leave the start or the end of some ranges open
+            TaskQuery query = new TaskQuery(null, EnumSet.noneOf(TaskFilter.class), List.of(),
+                    openEnd == 0 ? null : from, openEnd == 1 ? null : to);
+            QueryPlan.AccessPath path = taskList.planQuery(query).chosenPath();
+            assertEquals(QueryPlan.Kind.DATE_RANGE, path.kind());
+            assertEquals(taskList.stream().filter(query::matches).count(), path.estimatedTasks(),
+                    query.describe());
+            assertEquals(path.estimatedTasks(), taskList.findTasks(query).size());
+        }
+    }
+
+    @Test
+    void parallelScan_keepsListOrderAfterDeletes() {
+        Random random = new Random(23);
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < TaskList.PARALLEL_SCAN_THRESHOLD * 2; i++) {
+            taskList.addTask(new Todo((random.nextBoolean() ? "ab" : "cd") + " task " + i, null));
+        }
+        taskList.removeTasks(random.ints(5000, 0, TaskList.PARALLEL_SCAN_THRESHOLD).distinct().sorted().toArray());
+
+        List<Task> tasks = taskList.getAllTasks();
+        assertEquals(tasks, StreamSupport.stream(taskList.spliterator(), true).toList());
+        TaskQuery shortKeyword = new TaskQuery(null, EnumSet.noneOf(TaskFilter.class), List.of("ab"), null, null);
+        assertEquals(QueryPlan.Kind.BITMAP, taskList.planQuery(shortKeyword).chosenPath().kind());
+        assertEquals(tasks.stream().filter(task -> task.getDescription().contains("ab")).toList(),
+                taskList.findTasks(shortKeyword));
+    }
+
+    @Test
+    void findTasks_cachesResultsUntilAChangeCouldAlterThem() {
+        TaskList taskList = new TaskList();
+        taskList.setHistoryDepth(10);
+        Todo report = new Todo("write report", "work");
+        Todo milk = new Todo("buy milk", "home");
+        taskList.addTask(report);
+        taskList.addTask(milk);
+        TaskQuery work = new TaskQuery("Work", EnumSet.of(TaskFilter.UNDONE), List.of(), null, null);
+        TaskQuery home = new TaskQuery("home", EnumSet.noneOf(TaskFilter.class), List.of(), null, null);
+
+        assertEquals(List.of(report), taskList.findTasks(work));
+        assertEquals(List.of(milk), taskList.findTasks(home));
+        assertEquals(List.of(report), taskList.findTasks(new TaskQuery("WORK", EnumSet.of(TaskFilter.UNDONE),
+                List.of(), null, null)));
+        assertEquals(new QueryCacheStats(1, 2, 0, 0, 2), taskList.getQueryCacheStats());
+
+        taskList.markTask(0);
+        assertEquals(List.of(), taskList.findTasks(work));
+        assertEquals(List.of(milk), taskList.findTasks(home));
+        assertEquals(new QueryCacheStats(2, 3, 0, 1, 2), taskList.getQueryCacheStats());
+
+        taskList.undo();
+        Todo call = new Todo("call boss", "work");
+        taskList.addTask(call);
+        assertEquals(List.of(report, call), taskList.findTasks(work));
+        assertEquals(List.of(milk), taskList.findTasks(home));
+        assertEquals(new QueryCacheStats(3, 4, 0, 2, 2), taskList.getQueryCacheStats());
+    }
+
+    @Test
+    void findSimilarTasks_ranksClosestDescriptionsFirst() {
+        TaskList taskList = new TaskList();
+        Todo typo = new Todo("submit asignment", null);
+        Todo exact = new Todo("submit assignment", null);
+        Todo other = new Todo("buy groceries", null);
+        Todo alsoExact = new Todo("Assignment review", null);
+        taskList.addTask(typo);
+        taskList.addTask(exact);
+        taskList.addTask(other);
+        taskList.addTask(alsoExact);
+
+        assertEquals(List.of(exact, alsoExact, typo), taskList.findSimilarTasks("assigment", 10));
+        assertEquals(List.of(exact), taskList.findSimilarTasks("assigment", 1));
+        assertEquals(List.of(other), taskList.findSimilarTasks("grocries", 10));
+        assertTrue(taskList.findSimilarTasks("holiday", 10).isEmpty());
+    }
+
+    @Test
+    void getStats_afterMarkAndUndo_countsCurrentTasks() {
+        TaskList taskList = new TaskList();
+        taskList.setHistoryDepth(10);
+        LocalDateTime now = LocalDateTime.of(2024, 3, 6, 12, 0);
+        taskList.addTask(new Deadline("file taxes", now.minusDays(1), "work"));
+        taskList.addTask(new Event("conference", now.plusDays(1), now.plusDays(2), null));
+        taskList.getStats(now, now.minusDays(2), now.plusDays(4)); // Build the date ranks before the changes
+        taskList.addTask(new Todo("read book", "Work"));
+        taskList.markTask(0);
+        taskList.removeTask(1);
+        taskList.undo();
+
+        assertEquals(new TaskStats(1, 1, 1, 1, 0, 1, Map.of("work", 2)),
+                taskList.getStats(now, now.minusDays(2), now.plusDays(4)));
+    }
+
+    @Test
+    void indexOfId_deletedOrUnknownId_returnsMinusOne() {
+        TaskList taskList = new TaskList();
+        Todo first = new Todo("read book");
+        Todo second = new Todo("buy milk");
+        taskList.addTask(first);
+        taskList.addTask(second);
+        taskList.removeTask(0);
+
+        assertEquals(-1, taskList.indexOfId(first.getId()));
+        assertEquals(0, taskList.indexOfId(second.getId()));
+        assertEquals(-1, taskList.indexOfId(0));
+        assertEquals(-1, taskList.indexOfId(99));
+    }
+
+    @Test
+    void addTask_savedIds_keepsThemAndGivesNewTasksTheNextId() throws BuddyException {
+        TaskList taskList = new TaskList();
+        taskList.addTask(TaskParser.parseFromFile("3 | T | 0 | read book | fun"));
+        taskList.addTask(TaskParser.parseFromFile("40 | T | 1 | buy milk"));
+        // A saved ID that is not above the last one cannot keep its place in ID order, so it is replaced
+        taskList.addTask(TaskParser.parseFromFile("40 | T | 0 | write notes"));
+        taskList.addTask(TaskParser.parseFromFile("7 | T | 0 | call mum | fun"));
+        taskList.addTask(new Todo("water plants"));
+
+        assertEquals(List.of("3 | T | 0 | read book | fun", "40 | T | 1 | buy milk", "41 | T | 0 | write notes",
+                "42 | T | 0 | call mum | fun", "43 | T | 0 | water plants"), taskList.toFileFormat());
+        assertEquals(1, taskList.indexOfId(40));
+        assertEquals(-1, taskList.indexOfId(7));
+        assertEquals(List.of("read book", "call mum"),
+                taskList.getTasksWithTag("fun").stream().map(Task::getDescription).toList());
+    }
+
+    @Test
+    void undoAndRedo_restoreTasksIndexesAndStatus() {
+        TaskList taskList = new TaskList();
+        taskList.setHistoryDepth(10);
+        LocalDateTime by = LocalDateTime.of(2024, 3, 1, 12, 0);
+        Deadline first = new Deadline("submit report", by, "work");
+        Todo second = new Todo("read report", "work");
+        taskList.addTask(first);
+        taskList.addTask(second);
+        taskList.findTasksContaining("report"); // Build the text index so undo has to maintain it
+        taskList.markTask(1);
+        taskList.removeTask(0);
+
+        assertEquals(List.of(new TaskChange(TaskChange.Kind.DELETED, first)), taskList.undo());
+        assertEquals(List.of(first, second), taskList.getAllTasks());
+        assertEquals(List.of(first, second), taskList.getTasksWithTag("work"));
+        assertEquals(List.of(first, second), taskList.findTasksContaining("report"));
+        assertEquals(List.of(first), taskList.getTasksOn(by.toLocalDate()));
+        assertEquals(0, taskList.indexOfId(first.getId()));
+
+        assertEquals(List.of(new TaskChange(TaskChange.Kind.MARKED, second)), taskList.undo());
+        assertTrue(!second.isDone());
+        assertEquals(List.of(new TaskChange(TaskChange.Kind.ADDED, second)), taskList.undo());
+        assertEquals(List.of(first), taskList.getAllTasks());
+        assertEquals(List.of(first), taskList.findTasksContaining("report"));
+
+        taskList.redo();
+        taskList.redo();
+        assertTrue(second.isDone());
+        taskList.redo();
+        assertEquals(List.of(second), taskList.getAllTasks());
+        assertEquals(List.of(second), taskList.getTasksWithTag("work"));
+        assertTrue(taskList.getTasksOn(by.toLocalDate()).isEmpty());
+        assertTrue(taskList.redo().isEmpty());
+    }
+
+    @Test
+    void undo_matchesEarlierSnapshotsAfterRandomMutations() {
+        Random random = new Random(5);
+        TaskList taskList = new TaskList();
+        taskList.setHistoryDepth(500);
+        List<List<Task>> versions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            versions.add(List.copyOf(taskList.getAllTasks()));
+            if (random.nextInt(3) == 0 && !taskList.isEmpty()) {
+                taskList.removeTask(random.nextInt(taskList.size()));
+            } else {
+                taskList.addTask(new Todo("task " + i, random.nextBoolean() ? "work" : null));
+            }
+        }
+
+        for (int i = versions.size() - 1; i >= 0; i--) {
+            taskList.undo();
+            List<Task> expected = versions.get(i);
+            assertEquals(expected, taskList.getAllTasks());
+            assertEquals(expected.stream().filter(task -> task.getTag() != null).toList(),
+                    taskList.getTasksWithTag("work"));
+        }
+        assertTrue(taskList.undo().isEmpty());
+    }
+
+    @Test
+    void history_keepsConfiguredDepthAndNewChangeClearsRedo() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("loaded before history was on"));
+        taskList.setHistoryDepth(2);
+        taskList.addTask(new Todo("one"));
+        taskList.addTask(new Todo("two"));
+        taskList.addTask(new Todo("three"));
+
+        assertEquals(1, taskList.undo().size());
+        assertEquals(1, taskList.undo().size());
+        assertTrue(taskList.undo().isEmpty());
+        assertEquals(2, taskList.size());
+
+        taskList.addTask(new Todo("four"));
+        assertTrue(taskList.redo().isEmpty());
+    }
+
+    @Test
+    void getUpcomingTasks_returnsNextUndoneTasksAsTheyChange() {
+        TaskList taskList = new TaskList();
+        taskList.setHistoryDepth(10);
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 12, 0);
+        Deadline past = new Deadline("file taxes", now.minusDays(1), null);
+        Event later = new Event("conference", now.plusDays(3), now.plusDays(4), null);
+        Deadline soon = new Deadline("submit report", now.plusHours(2), null);
+        Deadline sameTime = new Deadline("pay rent", now.plusHours(2), null);
+        taskList.addTask(past);
+        taskList.addTask(later);
+        taskList.addTask(soon);
+        taskList.addTask(new Todo("read book"));
+        taskList.addTask(sameTime);
+
+        assertEquals(List.of(soon, sameTime, later), taskList.getUpcomingTasks(now, 10));
+        assertEquals(List.of(soon, sameTime), taskList.getUpcomingTasks(now, 2));
+
+        taskList.markTask(2);
+        assertEquals(List.of(sameTime, later), taskList.getUpcomingTasks(now, 10));
+        taskList.removeTask(4);
+        assertEquals(List.of(later), taskList.getUpcomingTasks(now, 10));
+
+        taskList.undo();
+        taskList.undo();
+        assertEquals(List.of(soon, sameTime, later), taskList.getUpcomingTasks(now, 10));
+        taskList.unmarkTask(0);
+        assertEquals(List.of(past, soon), taskList.getUpcomingTasks(now.minusDays(2), 2));
+    }
+
+    @Test
+    void concurrentMutatorsAndReaders_seeConsistentSnapshots() throws InterruptedException {
+        TaskList taskList = new TaskList();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 3; w++) {
+            int seed = w;
+            writers.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 20_000; i++) {
+                    if (random.nextInt(3) == 0) {
+                        try {
+                            taskList.removeTask(random.nextInt(Math.max(1, taskList.size())));
+                            removed.incrementAndGet();
+                        } catch (IndexOutOfBoundsException e) {
+                            // Another writer emptied the list first
+                        }
+                    } else {
+                        String tag = random.nextBoolean() ? "work" : null;
+                        LocalDateTime by = base.plusHours(random.nextInt(240));
+                        taskList.addTask(new Deadline("task " + seed + "-" + i, by, tag));
+                        added.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            readers.add(new Thread(() -> {
+                try {
+                    while (isWriting.get()) {
+                        List<Task> snapshot = taskList.getAllTasks();
+                        int size = snapshot.size();
+                        int count = 0;
+                        int lastId = 0;
+                        for (Task task : snapshot) {
+                            assertTrue(task.getId() > lastId, "snapshot should be in ID order");
+                            assertSame(task, snapshot.get(count));
+                            lastId = task.getId();
+                            count++;
+                        }
+                        assertEquals(size, count, "snapshot should not change while it is read");
+                        assertIdOrder(taskList.getTasksWithTag("work"));
+                        assertIdOrder(taskList.getTasksOn(base.toLocalDate().plusDays(3)));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+
+        readers.forEach(Thread::start);
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        isWriting.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertTrue(failures.isEmpty(), "readers failed: " + failures);
+        List<Task> tasks = taskList.getAllTasks();
+        assertEquals(added.get() - removed.get(), tasks.size());
+        int tagged = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(i, taskList.indexOfId(tasks.get(i).getId()));
+            if (tasks.get(i).getTag() != null) {
+                tagged++;
+            }
+        }
+        assertEquals(tagged, taskList.countTasksWithTag("work"));
+    }
+
+    private static void assertIdOrder(List<Task> tasks) {
+        for (int i = 1; i < tasks.size(); i++) {
+            assertTrue(tasks.get(i - 1).getId() < tasks.get(i).getId(), "results should be in list order");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import buddy.BuddyException;
+
+public class TaskParserTest {
+
+    @Test
+    void parseFromFile_validLines_roundTrip() throws BuddyException {
+        String[] lines = {
+            "T | 1 | Submit Internship Application | important",
+            "T | 0 | Watch Lecture Video Recordings",
+            "D | 0 | CS2103 Week 6 IP Tasks | 2026-02-20 1800",
+            "E | 0 | Recess Week | 2026-02-22 0000 | 2026-03-01 2359 | holiday"
+        };
+        for (String line : lines) {
+            assertEquals(line, TaskParser.parseFromFile(line).toFileFormat());
+        }
+    }
+
+    @Test
+    void parseFromFile_idField_setsIdAndRoundTrips() throws BuddyException {
+        Task task = TaskParser.parseFromFile("12 | D | 1 | submit report | 2026-02-20 1800");
+        assertTrue(task instanceof Deadline);
+        assertEquals(12, task.getId());
+        assertEquals("submit report", task.getDescription());
+        assertEquals("12 | D | 1 | submit report | 2026-02-20 1800", task.toFileFormat());
+        assertEquals(0, TaskParser.parseFromFile("T | 0 | read").getId());
+    }
+
+    @Test
+    void parseFromFile_extraFields_usesLastFieldAsTag() throws BuddyException {
+        Task task = TaskParser.parseFromFile("T | 0 | read | ignored |  leisure ");
+        assertTrue(task instanceof Todo);
+        assertEquals("read", task.getDescription());
+        assertEquals("leisure", task.getTag());
+    }
+
+    @Test
+    void parseFromFile_trailingDelimiter_dropsEmptyField() throws BuddyException {
+        Task task = TaskParser.parseFromFile("T | 0 | read | ");
+        assertEquals("read", task.getDescription());
+        assertNull(task.getTag());
+    }
+
+    @Test
+    void parseFromFile_malformedLines_throwBuddyException() {
+        assertMalformed("", "Invalid file format");
+        assertMalformed("T | 0 | ", "Invalid file format");
+        assertMalformed("T|0|read", "Invalid file format");
+        assertMalformed("T | 2 | read", "Invalid done flag: 2");
+        assertMalformed("X | 0 | read", "Unknown task type: X");
+        assertMalformed("D | 0 | submit", "Invalid deadline format");
+        assertMalformed("E | 1 | trip | 2026-02-22 0000", "Invalid event format");
+        assertMalformed("0 | T | 0 | read", "Invalid task ID: 0");
+        assertMalformed("3x | T | 0 | read", "Invalid task ID: 3x");
+        assertMalformed("99999999999 | T | 0 | read", "Invalid task ID: 99999999999");
+        assertMalformed("4 | T | 0", "Invalid file format");
+    }
+
+    private void assertMalformed(String line, String expectedMessage) {
+        BuddyException ex = assertThrows(BuddyException.class, () -> TaskParser.parseFromFile(line));
+        assertEquals(expectedMessage, ex.getMessage());
+    }
+}
@@ -0,0 +1,164 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskTrieTest {
+
+    @Test
+    void randomChanges_matchArrayListAndKeepIds() {
+        Random random = new Random(5);
+        TaskTrie trie = TaskTrie.EMPTY;
+        List<Task> expected = new ArrayList<>();
+        List<Task> everAdded = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            int choice = random.nextInt(10);
+            if (choice < 6 || expected.isEmpty()) {
+                Task task = new Todo("task " + step);
+                task.setId(trie.nextId());
+                trie = trie.append(task);
+                expected.add(task);
+                everAdded.add(task);
+            } else if (choice < 9) {
+                int position = random.nextInt(expected.size());
+                trie = trie.removeAt(position);
+                expected.remove(position);
+            } else {
+                int[] positions = random.ints(0, expected.size()).limit(1 + expected.size() / 2)
+                        .distinct().sorted().toArray();
+                trie = trie.removeAll(positions);
+                for (int i = positions.length - 1; i >= 0; i--) {
+                    expected.remove(positions[i]);
+                }
+            }
+        }
+
+        assertEquals(expected, trie);
+        assertEquals(expected, new ArrayList<>(trie));
+        assertEquals(expected, StreamSupport.stream(trie.spliterator(), true).toList());
+        for (Task task : everAdded) {
+            int position = expected.indexOf(task);
+            assertEquals(position, trie.positionOfId(task.getId()));
+            assertEquals(position < 0 ? null : task, trie.getById(task.getId()));
+        }
+        assertEquals(-1, trie.positionOfId(0));
+        assertEquals(-1, trie.positionOfId(trie.nextId()));
+    }
+
+    @Test
+    void removeAll_mostTasks_compactsAndKeepsIdsAndEarlierVersions() {
+        TaskTrie trie = TaskTrie.EMPTY;
+        for (int i = 0; i < 10_000; i++) {
+            Task task = new Todo("task " + i);
+            task.setId(trie.nextId());
+            trie = trie.append(task);
+        }
+        TaskTrie full = trie;
+        int[] positions = new int[9_000];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i + i / 9;
+        }
+
+        trie = trie.removeAll(positions);
+
+        assertEquals(1_000, trie.size());
+        assertTrue(trie.slotCount() < 2_000, "expected the sparse trie to be rebuilt");
+        assertEquals(10_000, full.size());
+        for (int id = 1; id <= 10_000; id++) {
+            Task task = full.getById(id);
+            boolean isKept = (id - 1) % 10 == 9;
+            assertEquals(isKept ? task : null, trie.getById(id));
+            assertEquals(isKept ? (id - 1) / 10 : -1, trie.positionOfId(id));
+        }
+
+        Task appended = new Todo("after rebuild");
+        appended.setId(trie.nextId());
+        assertEquals(10_001, appended.getId());
+        trie = trie.append(appended);
+        assertEquals(1_000, trie.positionOfId(10_001));
+        assertEquals(appended, trie.get(1_000));
+    }
+
+    @Test
+    void iterator_sparseTrie_skipsEmptySubtrees() {
+        TaskTrie trie = TaskTrie.EMPTY;
+        for (int i = 0; i < 2_000; i++) {
+            Task task = new Todo("task " + i);
+            task.setId(trie.nextId());
+            trie = trie.append(task);
+        }
+        // Empty the subtrees after the first task, staying under the share of empty slots that triggers a rebuild
+        trie = trie.removeAll(IntStream.range(1, 900).toArray());
+
+        List<Task> tasks = new ArrayList<>(trie);
+        assertEquals(1_101, tasks.size());
+        assertEquals(1, tasks.get(0).getId());
+        assertEquals(901, tasks.get(1).getId());
+        assertEquals(2_000, trie.slotCount());
+        assertNull(trie.getById(2));
+    }
+
+    @Test
+    void append_idAfterGap_leavesSkippedSlotsEmpty() {
+        Task first = new Todo("read book");
+        first.setId(2);
+        Task second = new Todo("buy milk");
+        second.setId(5_000);
+        TaskTrie trie = TaskTrie.EMPTY.append(first).append(second);
+
+        assertEquals(List.of(first, second), new ArrayList<>(trie));
+        assertEquals(5_001, trie.nextId());
+        assertNull(trie.getById(1));
+        assertNull(trie.getById(4_999));
+        assertEquals(second, trie.getById(5_000));
+        assertEquals(1, trie.positionOfId(5_000));
+    }
+
+    @Test
+    void spliterator_splitsKeepExactSizes() {
+        TaskTrie trie = TaskTrie.EMPTY;
+        for (int i = 0; i < 5_000; i++) {
+            Task task = new Todo("task " + i);
+            task.setId(trie.nextId());
+            trie = trie.append(task);
+        }
+        int[] positions = new int[1_500];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i * 2;
+        }
+        trie = trie.removeAll(positions);
+
+        List<Spliterator<Task>> parts = new ArrayList<>(List.of(trie.spliterator()));
+        for (int round = 0; round < 4; round++) {
+            List<Spliterator<Task>> next = new ArrayList<>();
+            for (Spliterator<Task> part : parts) {
+                Spliterator<Task> prefix = part.trySplit();
+                if (prefix != null) {
+                    next.add(prefix);
+                }
+                next.add(part);
+            }
+            parts = next;
+        }
+
+        assertEquals(16, parts.size());
+        List<Task> joined = new ArrayList<>();
+        for (Spliterator<Task> part : parts) {
+            long size = part.estimateSize();
+            int before = joined.size();
+            part.forEachRemaining(joined::add);
+            assertEquals(size, joined.size() - before);
+        }
+        assertEquals(new ArrayList<>(trie), joined);
+    }
+}
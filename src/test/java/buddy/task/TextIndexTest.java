@@ -0,0 +1,164 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TextIndexTest {
+
+    @Test
+    void find_randomDescriptions_agreesWithScan() {
+        Random random = new Random(7);
+        String[] words = {"Read", "book", "buy", "milk", "write", "report", "Meet", "team", "a", "bo"};
+        TextIndex index = new TextIndex();
+        List<Task> live = new ArrayList<>();
+        for (int id = 1; id <= 1000; id++) {
+            if (id % 5 == 0 && !live.isEmpty()) {
+                index.remove(live.remove(random.nextInt(live.size())));
+                continue;
+            }
+            StringBuilder description = new StringBuilder();
+            for (int j = 0; j <= random.nextInt(4); j++) {
+                description.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            Task task = todo(id, description.toString().trim());
+            index.add(task);
+            live.add(task);
+        }
+
+        for (String keyword : List.of("book", "BOOK", "read book", "k b", "team meet", "xyz", "ilk")) {
+            List<Task> expected = live.stream()
+                    .filter(task -> task.getDescription().toLowerCase().contains(keyword.toLowerCase()))
+                    .toList();
+            assertEquals(expected, index.find(keyword), "tasks containing " + keyword);
+        }
+    }
+
+    @Test
+    void remove_manyTasks_findAgreesWithScan() {
+        TextIndex index = new TextIndex();
+        List<Task> live = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            Task task = todo(id, "Task " + id + (id % 3 == 0 ? " report" : " errand"));
+            index.add(task);
+            live.add(task);
+        }
+        Random random = new Random(11);
+        while (live.size() > 100) {
+            index.remove(live.remove(random.nextInt(live.size())));
+        }
+
+        for (String keyword : List.of("task", "REPORT", "errand", "task 1")) {
+            List<Task> expected = live.stream()
+                    .filter(task -> task.getDescription().toLowerCase().contains(keyword.toLowerCase()))
+                    .toList();
+            assertEquals(expected, index.find(keyword));
+            assertTrue(index.estimate(keyword) >= expected.size());
+        }
+        assertEquals(live.size(), index.estimate("task"));
+    }
+
+    @Test
+    void add_removedTaskRestored_isFoundAgain() {
+        TextIndex index = new TextIndex();
+        Task first = todo(1, "aaaa first");
+        Task second = todo(2, "aaaa second");
+        Task third = todo(3, "aaaa third");
+        index.add(first);
+        index.add(second);
+        index.add(third);
+
+        index.remove(second);
+        assertEquals(List.of(first, third), index.find("aaa"));
+
+        index.add(second);
+        assertEquals(List.of(first, second, third), index.find("aaa"));
+        assertEquals(3, index.estimate("aaaa"));
+
+        index.remove(second);
+        index.remove(first);
+        assertEquals(List.of(third), index.find("aaaa"));
+        assertEquals(List.of(third), index.findSimilar("aaaa", 5));
+    }
+
+    @Test
+    void findSimilar_typo_ranksClosestDescriptionsFirst() {
+        TextIndex index = new TextIndex();
+        Task typo = todo(1, "submit asignment");
+        Task exact = todo(2, "submit assignment");
+        Task other = todo(3, "buy groceries");
+        Task alsoExact = todo(4, "Assignment review");
+        for (Task task : List.of(typo, exact, other, alsoExact)) {
+            index.add(task);
+        }
+
+        assertEquals(List.of(exact, alsoExact, typo), index.findSimilar("assigment", 10));
+        assertEquals(List.of(exact), index.findSimilar("assigment", 1));
+        assertEquals(List.of(other), index.findSimilar("grocries", 10));
+        assertTrue(index.findSimilar("holiday", 10).isEmpty());
+    }
+
+    @Test
+    void findSimilar_afterRemovals_keepsEveryCloserTaskThanTheLastReturned() {
+        Random random = new Random(19);
+        String[] words = {"report", "reprot", "review", "invoice", "invoices", "meeting", "metting", "groceries"};
+        TextIndex index = new TextIndex();
+        List<Task> live = new ArrayList<>();
+        for (int id = 1; id <= 3000; id++) {
+            Task task = todo(id, words[random.nextInt(words.length)] + " "
+                    + words[random.nextInt(words.length)] + " " + id);
+            index.add(task);
+            live.add(task);
+        }
+        for (int i = 0; i < 300; i++) {
+            index.remove(live.remove(random.nextInt(live.size())));
+        }
+
+        for (String term : List.of("report", "invoise", "meetnig")) {
+            List<Task> closest = index.findSimilar(term, 20);
+            assertEquals(20, closest.size());
+            int lastEdits = substringEditDistance(term, closest.get(closest.size() - 1).getDescription());
+            for (int i = 1; i < closest.size(); i++) {
+                assertTrue(substringEditDistance(term, closest.get(i - 1).getDescription())
+                        <= substringEditDistance(term, closest.get(i).getDescription()), term);
+            }
+            for (Task task : live) {
+                if (!closest.contains(task)) {
+                    assertTrue(substringEditDistance(term, task.getDescription()) >= lastEdits, term);
+                }
+            }
+        }
+    }
+
+    private static int substringEditDistance(String pattern, String text) {
+        int[][] edits = new int[pattern.length() + 1][text.length() + 1];
+        for (int i = 1; i <= pattern.length(); i++) {
+            edits[i][0] = i;
+            for (int j = 1; j <= text.length(); j++) {
+                int substitution = edits[i - 1][j - 1]
+                        + (pattern.charAt(i - 1) == Character.toLowerCase(text.charAt(j - 1)) ? 0 : 1);
+                edits[i][j] = Math.min(substitution, Math.min(edits[i - 1][j], edits[i][j - 1]) + 1);
+                if (i > 1 && j > 1 && pattern.charAt(i - 1) == Character.toLowerCase(text.charAt(j - 2))
+                        && pattern.charAt(i - 2) == Character.toLowerCase(text.charAt(j - 1))) {
+                    edits[i][j] = Math.min(edits[i][j], edits[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        int best = pattern.length();
+        for (int j = 0; j <= text.length(); j++) {
+            best = Math.min(best, edits[pattern.length()][j]);
+        }
+        return best;
+    }
+
+    private static Task todo(int id, String description) {
+        Task task = new Todo(description);
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,58 @@
+package buddy.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class UpcomingIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Test
+    void findNext_mixedTasks_returnsUndoneDatedTasksSoonestFirst() {
+        UpcomingIndex index = new UpcomingIndex();
+        Deadline past = withId(1, new Deadline("file taxes", NOW.minusDays(1), null));
+        Event later = withId(2, new Event("conference", NOW.plusDays(3), NOW.plusDays(4), null));
+        Deadline sameTime = withId(3, new Deadline("pay rent", NOW.plusHours(2), null));
+        Deadline soon = withId(4, new Deadline("submit report", NOW.plusHours(2), null));
+        Deadline done = withId(5, new Deadline("book flights", NOW.plusHours(1), null));
+        done.setDone(true);
+        for (Task task : List.of(soon, later, withId(6, new Todo("read book")), past, done, sameTime)) {
+            index.add(task);
+        }
+
+        assertEquals(List.of(sameTime, soon, later), index.findNext(NOW, 10));
+        assertEquals(List.of(sameTime, soon), index.findNext(NOW, 2));
+        assertEquals(List.of(sameTime, soon), index.findNext(NOW.plusHours(2), 2));
+        assertEquals(List.of(past, sameTime), index.findNext(NOW.minusDays(2), 2));
+        assertTrue(index.findNext(NOW.plusDays(3).plusNanos(1), 10).isEmpty());
+    }
+
+    @Test
+    void remove_thenAddWhenUndone_tracksDoneStatus() {
+        UpcomingIndex index = new UpcomingIndex();
+        Deadline report = withId(1, new Deadline("submit report", NOW.plusHours(2), null));
+        Event meeting = withId(2, new Event("team meeting", NOW.plusDays(1), NOW.plusDays(1).plusHours(1), null));
+        index.add(report);
+        index.add(meeting);
+
+        index.remove(report);
+        report.setDone(true);
+        index.add(report);
+        assertEquals(List.of(meeting), index.findNext(NOW, 10));
+
+        index.remove(report);
+        report.setDone(false);
+        index.add(report);
+        index.remove(meeting);
+        assertEquals(List.of(report), index.findNext(NOW, 10));
+    }
+
+    private static <T extends Task> T withId(int id, T task) {
+        task.setId(id);
+        return task;
+    }
+}